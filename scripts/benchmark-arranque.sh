@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+#
+# Tiempo hasta la primera petición servida en cada modo de arranque.
+#
+# Uso:
+#   ./mvnw -Pproduccion -DskipTests package
+#   scripts/benchmark-arranque.sh [repeticiones]
+#
+# Variables opcionales:
+#   PUERTO     puerto a usar (por defecto 8081)
+#   RUTA       URL a pedir (por defecto /login, pública y renderizada con Thymeleaf)
+#   JAVA_OPTS  opciones extra para todos los modos (p. ej. -Dspring.datasource.url=...)
+#
+# Necesita la base de datos configurada en application.properties (o en JAVA_OPTS).
+# Modos:
+#   fat-jar   java -jar con el jar ejecutable de Spring Boot
+#   extraido  jar extraído (classpath plano, sin el class loader anidado)
+#   aot       extraído + -Dspring.aot.enabled=true
+#   aot+cds   extraído + AOT + archivo CDS de la ejecución de entrenamiento
+set -euo pipefail
+
+REPETICIONES="${1:-5}"
+PUERTO="${PUERTO:-8081}"
+RUTA="${RUTA:-/login}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$DIR/target/demo-0.0.1-SNAPSHOT.jar"
+APP="$DIR/target/aplicacion"
+
+if [[ ! -f "$APP/aplicacion.jsa" ]]; then
+    echo "Falta $APP/aplicacion.jsa: ejecuta antes ./mvnw -Pproduccion -DskipTests package" >&2
+    exit 1
+fi
+
+# Devuelve los milisegundos desde el lanzamiento hasta la primera respuesta 200
+medir() {
+    local directorio="$1"; shift
+    local inicio fin pid
+    inicio=$(date +%s%N)
+    (cd "$directorio" && exec java $JAVA_OPTS -Dserver.port="$PUERTO" "$@" >/dev/null 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PUERTO$RUTA"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "La aplicación terminó antes de responder" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    fin=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( (fin - inicio) / 1000000 ))
+}
+
+mediana() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+ejecutar() {
+    local modo="$1"; shift
+    local tiempos=()
+    for ((i = 0; i < REPETICIONES; i++)); do
+        tiempos+=("$(medir "$@")")
+    done
+    printf '%-10s mediana %6s ms   (%s)\n' "$modo" "$(printf '%s\n' "${tiempos[@]}" | mediana)" "${tiempos[*]}"
+}
+
+echo "Tiempo hasta la primera petición ($RUTA), $REPETICIONES arranques por modo"
+ejecutar "fat-jar"  "$DIR"  -jar "$JAR"
+ejecutar "extraido" "$APP"  -jar demo-0.0.1-SNAPSHOT.jar
+ejecutar "aot"      "$APP"  -Dspring.aot.enabled=true -jar demo-0.0.1-SNAPSHOT.jar
+ejecutar "aot+cds"  "$APP"  -XX:SharedArchiveFile=aplicacion.jsa -Dspring.aot.enabled=true -jar demo-0.0.1-SNAPSHOT.jar
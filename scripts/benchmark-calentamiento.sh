@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+#
+# Efecto del calentamiento en la latencia del primer minuto tras el arranque.
+#
+# Uso:
+#   ./mvnw -DskipTests package
+#   scripts/benchmark-calentamiento.sh [segundos]
+#
+# Para cada modo (sin / con calentamiento) arranca la aplicación, espera a que
+# /actuator/health/readiness responda 200 y lanza peticiones secuenciales durante
+# N segundos (60 por defecto) contra las rutas calientes. Informa del tiempo hasta
+# "ready" y de los percentiles de latencia.
+#
+# Variables opcionales:
+#   PUERTO            puerto a usar (por defecto 8082)
+#   USUARIO / CLAVE   credenciales para incluir /personajes y /buscar/texto (requieren login);
+#                     el usuario se registra antes de entrar si aún no existe
+#   JAVA_OPTS         opciones extra (p. ej. -Dspring.datasource.url=...)
+#   CP                arranca con este classpath en lugar del jar (p. ej. target/classes más
+#                     las dependencias de test, para medir con H2 sin MySQL)
+#
+# El limitador de peticiones se desactiva para no medir respuestas 429.
+set -euo pipefail
+
+SEGUNDOS="${1:-60}"
+PUERTO="${PUERTO:-8082}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$DIR/target/demo-0.0.1-SNAPSHOT.jar"
+BASE="http://localhost:$PUERTO"
+COOKIES="$(mktemp)"
+trap 'rm -f "$COOKIES"' EXIT
+
+RUTAS=("/vista/personajesweb" "/login")
+if [[ -n "${USUARIO:-}" ]]; then
+    RUTAS+=("/personajes" "/buscar/texto?q=goku" "/buscar/sugerir?q=veg" "/buscar/nombre?nombre=gohan")
+fi
+
+percentiles() {
+    sort -n | awk '{ v[NR] = $1 } END {
+        if (NR == 0) { print "sin datos"; exit }
+        printf "n=%d  p50=%.1f ms  p90=%.1f ms  p99=%.1f ms  max=%.1f ms\n",
+            NR, v[int(NR * 0.50) + 1], v[int(NR * 0.90) + 1], v[int(NR * 0.99) + 1], v[NR] }'
+}
+
+ejecutar() {
+    local modo="$1" activado="$2" inicio listo pid fin
+    inicio=$(date +%s%N)
+    local lanzar=(-jar "$JAR")
+    if [[ -n "${CP:-}" ]]; then
+        lanzar=(-cp "$CP" com.example.demo.com.DemoApplication)
+    fi
+    java $JAVA_OPTS -Dserver.port="$PUERTO" -Dapp.rate-limit.enabled=false \
+        -Dapp.calentamiento.enabled="$activado" "${lanzar[@]}" >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$BASE/actuator/health/readiness"; do
+        kill -0 "$pid" 2>/dev/null || { echo "La aplicación terminó antes de estar lista" >&2; return 1; }
+        sleep 0.05
+    done
+    listo=$(( ($(date +%s%N) - inicio) / 1000000 ))
+
+    rm -f "$COOKIES"
+    if [[ -n "${USUARIO:-}" ]]; then
+        curl -s -o /dev/null -d "username=$USUARIO&password=$CLAVE&passwordConfirm=$CLAVE" "$BASE/register"
+        curl -s -o /dev/null -c "$COOKIES" -d "username=$USUARIO&password=$CLAVE" "$BASE/login"
+    fi
+
+    fin=$(( $(date +%s) + SEGUNDOS ))
+    local latencias=() i=0
+    while (( $(date +%s) < fin )); do
+        ruta="${RUTAS[$(( i % ${#RUTAS[@]} ))]}"
+        latencias+=("$(curl -s -o /dev/null -b "$COOKIES" -w '%{time_total}' "$BASE$ruta" | awk '{ print $1 * 1000 }')")
+        i=$(( i + 1 ))
+    done
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    printf '%-5s listo en %6d ms   primeros %ss: %s\n' "$modo" "$listo" "$SEGUNDOS" \
+        "$(printf '%s\n' "${latencias[@]}" | percentiles)"
+    printf '      primeras 20 peticiones: %s\n' \
+        "$(printf '%s\n' "${latencias[@]:0:20}" | percentiles)"
+}
+
+echo "Latencia tras el arranque (${#RUTAS[@]} rutas en rotación, $SEGUNDOS s por modo)"
+ejecutar "sin" false
+ejecutar "con" true
@@ -0,0 +1,96 @@
+package com.example.demo.com.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker de tres estados para la API externa.
+ *
+ * - CERRADO: las llamadas pasan; cada fallo suma y un éxito pone el contador a cero.
+ *   Al llegar a {@code umbral} fallos seguidos se abre.
+ * - ABIERTO: las llamadas se rechazan sin tocar la red hasta que pasa {@code tiempoAbierto}.
+ * - SEMIABIERTO: pasa una única llamada de prueba; si va bien se cierra y si falla
+ *   vuelve a abrirse otro {@code tiempoAbierto}.
+ *
+ * Quien llama decide qué es un fallo: los errores que no dicen nada de la salud de la API
+ * (un 4xx, una respuesta mal formada) se informan con {@link #liberar()} y no cuentan.
+ *
+ * Sin bloqueos: el estado se deriva de un contador y un instante de apertura atómicos.
+ * El reloj (nanosegundos) se inyecta para poder probarlo sin esperas reales.
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final int umbral;
+    private final long tiempoAbiertoNanos;
+    private final LongSupplier reloj;
+
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    private final AtomicBoolean pruebaEnCurso = new AtomicBoolean();
+
+    /**
+     * Instante (reloj) en que se abrió el circuito; solo tiene sentido con fallosSeguidos >= umbral
+     */
+    private volatile long abiertoDesde;
+
+    public CircuitBreaker(int umbral, Duration tiempoAbierto, LongSupplier reloj) {
+        this.umbral = Math.max(1, umbral);
+        this.tiempoAbiertoNanos = tiempoAbierto.toNanos();
+        this.reloj = reloj;
+    }
+
+    public Estado estado() {
+        if (fallosSeguidos.get() < umbral) {
+            return Estado.CERRADO;
+        }
+        return reloj.getAsLong() - abiertoDesde < tiempoAbiertoNanos ? Estado.ABIERTO : Estado.SEMIABIERTO;
+    }
+
+    /**
+     * ¿Puede hacerse la llamada? En SEMIABIERTO solo la primera que lo pregunta
+     * (debe informar después con {@link #exito()}, {@link #fallo()} o {@link #liberar()}).
+     */
+    public boolean permitir() {
+        return switch (estado()) {
+            case CERRADO -> true;
+            case ABIERTO -> false;
+            case SEMIABIERTO -> pruebaEnCurso.compareAndSet(false, true);
+        };
+    }
+
+    public void exito() {
+        if (fallosSeguidos.getAndSet(0) >= umbral) {
+            log.info("Circuito de la API externa cerrado");
+        }
+        pruebaEnCurso.set(false);
+    }
+
+    /**
+     * La llamada terminó sin decir nada de la salud de la API: no cuenta como fallo ni como éxito,
+     * solo deja pasar otra llamada de prueba si esta lo era.
+     */
+    public void liberar() {
+        pruebaEnCurso.set(false);
+    }
+
+    public void fallo() {
+        // Se fija el instante antes de cruzar el umbral para que nadie vea el circuito abierto "desde 0"
+        long ahora = reloj.getAsLong();
+        if (fallosSeguidos.get() + 1 >= umbral) {
+            abiertoDesde = ahora;
+        }
+        if (fallosSeguidos.incrementAndGet() == umbral || pruebaEnCurso.get()) {
+            log.warn("Circuito de la API externa abierto durante {} ms tras {} fallos seguidos",
+                    tiempoAbiertoNanos / 1_000_000, fallosSeguidos.get());
+        }
+        pruebaEnCurso.set(false);
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.demo.com.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import com.example.demo.com.config.UpstreamProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cliente HTTP de la API externa de Dragon Ball (sustituye al {@code new RestTemplate()} sin límites).
+ *
+ * Buenas prácticas aplicadas:
+ * - 🔌 Un único HttpClient del JDK compartido: conexiones keep-alive reutilizadas entre páginas
+ *   (y multiplexadas si el servidor habla HTTP/2), con timeout de conexión.
+ * - ⏱️ Plazo total por página: ningún hilo de petición espera más de {@code deadline},
+ *   y cada intento se recorta a lo que queda de plazo.
+ * - 🔁 Reintentos solo de lo que puede salir bien al repetir (red, timeouts, 5xx, 429),
+ *   con backoff exponencial y jitter completo para no sincronizar a todos los nodos.
+ * - 🪂 Peticiones de cobertura (hedging): si un intento tarda más de {@code hedgeDelay} se lanza
+ *   otro igual y gana el primero que responde bien; el perdedor se cancela. Solo GET (idempotente).
+ * - 🚦 Circuit breaker: con la API caída se falla al instante en lugar de gastar el plazo en cada
+ *   petición; quien llama sirve el último catálogo conocido. Solo cuentan los fallos que indican
+ *   una API caída o saturada (los reintentables); un 4xx o un JSON roto no abren el circuito.
+ */
+public class ClienteUpstream implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteUpstream.class);
+
+    private static final TypeReference<Map<String, Object>> PAGINA = new TypeReference<>() {
+    };
+
+    /**
+     * Intento en vuelo: el futuro de sendAsync (el único cuya cancelación aborta el intercambio HTTP)
+     * y la página decodificada que depende de él
+     */
+    private record Peticion(CompletableFuture<HttpResponse<byte[]>> envio,
+                            CompletableFuture<Map<String, Object>> pagina) {
+
+        void cancelar() {
+            envio.cancel(true);
+        }
+    }
+
+    private final UpstreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final CircuitBreaker breaker;
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+
+    private final AtomicLong reintentos = new AtomicLong();
+    private final AtomicLong coberturas = new AtomicLong();
+
+    public ClienteUpstream(UpstreamProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.breaker = new CircuitBreaker(properties.getBreaker().getFailureThreshold(),
+                properties.getBreaker().getOpenDuration(), System::nanoTime);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(ejecutor)
+                .build();
+    }
+
+    /**
+     * Descarga y decodifica una página JSON de la API.
+     *
+     * @param url URL absoluta de la página
+     * @return el objeto JSON de la página
+     * @throws UpstreamNoDisponibleException si el circuito está abierto, se agota el plazo
+     *                                       o la respuesta no es válida
+     */
+    public Map<String, Object> obtenerPagina(String url) {
+        if (!breaker.permitir()) {
+            throw new UpstreamNoDisponibleException("Circuito abierto: no se llama a la API externa");
+        }
+        try {
+            Map<String, Object> pagina = conReintentos(URI.create(url));
+            breaker.exito();
+            return pagina;
+        } catch (UpstreamNoDisponibleException e) {
+            if (e.reintentable()) {
+                breaker.fallo();
+            } else {
+                breaker.liberar();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.liberar();
+            throw e;
+        }
+    }
+
+    public CircuitBreaker.Estado estadoCircuito() {
+        return breaker.estado();
+    }
+
+    /**
+     * Reintentos realizados desde el arranque
+     */
+    public long reintentos() {
+        return reintentos.get();
+    }
+
+    /**
+     * Peticiones de cobertura lanzadas desde el arranque
+     */
+    public long coberturas() {
+        return coberturas.get();
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.shutdownNow();
+        ejecutor.shutdownNow();
+    }
+
+    private Map<String, Object> conReintentos(URI uri) {
+        long limite = System.nanoTime() + properties.getDeadline().toNanos();
+        for (int intento = 0; ; intento++) {
+            try {
+                return conCobertura(uri, limite);
+            } catch (UpstreamNoDisponibleException e) {
+                long espera = espera(intento);
+                if (!e.reintentable() || intento >= properties.getMaxRetries()
+                        || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(espera) >= limite) {
+                    throw e;
+                }
+                log.debug("Reintento {} de {} en {} ms: {}", intento + 1, uri, espera, e.getMessage());
+                reintentos.incrementAndGet();
+                dormir(espera);
+            }
+        }
+    }
+
+    /**
+     * Un intento, con una segunda petición de cobertura si la primera se retrasa.
+     */
+    private Map<String, Object> conCobertura(URI uri, long limite) {
+        Peticion primera = enviar(uri, limite);
+        long cobertura = properties.getHedgeDelay().toNanos();
+        if (cobertura <= 0 || cobertura >= restante(limite)) {
+            return esperar(primera.pagina(), limite, primera);
+        }
+        try {
+            return primera.pagina().get(cobertura, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // sigue abajo: la primera continúa y se lanza la cobertura
+        } catch (ExecutionException e) {
+            throw traducir(e.getCause());
+        } catch (InterruptedException e) {
+            primera.cancelar();
+            Thread.currentThread().interrupt();
+            throw new UpstreamNoDisponibleException("Interrumpido esperando a " + uri, false);
+        }
+
+        coberturas.incrementAndGet();
+        Peticion segunda = enviar(uri, limite);
+        CompletableFuture<Map<String, Object>> ganadora = new CompletableFuture<>();
+        AtomicInteger pendientes = new AtomicInteger(2);
+        for (Peticion peticion : List.of(primera, segunda)) {
+            peticion.pagina().whenComplete((pagina, error) -> {
+                if (error == null) {
+                    ganadora.complete(pagina);
+                } else if (pendientes.decrementAndGet() == 0) {
+                    ganadora.completeExceptionally(error);
+                }
+            });
+        }
+        return esperar(ganadora, limite, primera, segunda);
+    }
+
+    /**
+     * Espera el resultado dentro del plazo y, pase lo que pase, aborta los intercambios que sigan
+     * en vuelo (el perdedor de la cobertura o los que se han quedado sin plazo).
+     */
+    private Map<String, Object> esperar(CompletableFuture<Map<String, Object>> resultado, long limite,
+                                        Peticion... peticiones) {
+        try {
+            return resultado.get(restante(limite), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Reintentable para el breaker (API colgada); conReintentos no repite porque ya no queda plazo
+            throw new UpstreamNoDisponibleException("Plazo de " + properties.getDeadline() + " agotado", true);
+        } catch (ExecutionException e) {
+            throw traducir(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamNoDisponibleException("Interrumpido esperando a la API externa", false);
+        } finally {
+            for (Peticion peticion : peticiones) {
+                peticion.cancelar();
+            }
+        }
+    }
+
+    private Peticion enviar(URI uri, long limite) {
+        Duration timeout = Duration.ofNanos(Math.max(1, Math.min(properties.getRequestTimeout().toNanos(),
+                restante(limite))));
+        HttpRequest peticion = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        CompletableFuture<HttpResponse<byte[]>> envio =
+                httpClient.sendAsync(peticion, HttpResponse.BodyHandlers.ofByteArray());
+        return new Peticion(envio, envio.thenApply(respuesta -> decodificar(uri, respuesta)));
+    }
+
+    private Map<String, Object> decodificar(URI uri, HttpResponse<byte[]> respuesta) {
+        int estado = respuesta.statusCode();
+        if (estado == 429 || estado >= 500) {
+            throw new UpstreamNoDisponibleException(uri + " respondió " + estado, true);
+        }
+        if (estado != 200) {
+            throw new UpstreamNoDisponibleException(uri + " respondió " + estado, false);
+        }
+        try {
+            return objectMapper.readValue(respuesta.body(), PAGINA);
+        } catch (IOException e) {
+            throw new UpstreamNoDisponibleException("JSON no válido en " + uri + ": " + e.getMessage(), false);
+        }
+    }
+
+    private static UpstreamNoDisponibleException traducir(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof UpstreamNoDisponibleException e) {
+            return e;
+        }
+        if (error instanceof IOException || error instanceof CancellationException) {
+            // Incluye HttpTimeoutException y HttpConnectTimeoutException
+            return new UpstreamNoDisponibleException(error.toString(), true);
+        }
+        return new UpstreamNoDisponibleException(String.valueOf(error), false);
+    }
+
+    /**
+     * Backoff exponencial con jitter completo: aleatorio en [0, min(max, base * 2^intento)]
+     */
+    private long espera(int intento) {
+        long techo = Math.min(properties.getBackoffMax().toMillis(),
+                properties.getBackoffBase().toMillis() << Math.min(intento, 20));
+        return ThreadLocalRandom.current().nextLong(techo + 1);
+    }
+
+    private static long restante(long limite) {
+        return limite - System.nanoTime();
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamNoDisponibleException("Interrumpido entre reintentos", false);
+        }
+    }
+
+    /**
+     * La API externa no ha devuelto la página (circuito abierto, plazo agotado o respuesta no válida)
+     */
+    public static class UpstreamNoDisponibleException extends RuntimeException {
+
+        private final boolean reintentable;
+
+        public UpstreamNoDisponibleException(String message) {
+            this(message, false);
+        }
+
+        public UpstreamNoDisponibleException(String message, boolean reintentable) {
+            super(message);
+            this.reintentable = reintentable;
+        }
+
+        public boolean reintentable() {
+            return reintentable;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.com.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.com.service.CalentamientoService;
+
+/**
+ * Indicador "calentamiento" del grupo readiness (/actuator/health/readiness):
+ * OUT_OF_SERVICE hasta que CalentamientoService termina, UP después con la duración
+ * de cada paso (y los que fallaron, si alguno) en los detalles.
+ */
+@Component
+public class CalentamientoHealthIndicator implements HealthIndicator {
+
+    private final CalentamientoService calentamiento;
+
+    public CalentamientoHealthIndicator(CalentamientoService calentamiento) {
+        this.calentamiento = calentamiento;
+    }
+
+    @Override
+    public Health health() {
+        if (!calentamiento.completado()) {
+            return Health.outOfService().withDetail("estado", "calentando").build();
+        }
+        if (!calentamiento.activado()) {
+            return Health.up().withDetail("estado", "desactivado").build();
+        }
+        Health.Builder salud = Health.up().withDetail("duracionesMs", calentamiento.duraciones());
+        if (!calentamiento.pasosFallidos().isEmpty()) {
+            salud.withDetail("fallidos", calentamiento.pasosFallidos());
+        }
+        return salud.build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.com.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuración de acceso a datos con separación lectura/escritura.
+ *
+ * - La base de datos principal se define con las propiedades estándar {@code spring.datasource.*}.
+ * - Las transacciones {@code @Transactional(readOnly = true)} se envían a las réplicas
+ *   ({@code app.datasource.read-replicas.*}); el resto (escrituras de UsuarioService, carga
+ *   desde la API...) siempre va a la principal.
+ * - LazyConnectionDataSourceProxy retrasa la obtención de la conexión física hasta la
+ *   primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ * - {@code spring.flyway.enabled=false} se respeta también con AOT (ver flywayMigrationStrategy).
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    /**
+     * Pool de conexiones de la base de datos principal
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pool de réplicas de lectura (vacío si no hay nodos configurados)
+     */
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties) {
+        List<DataSource> replicas = properties.getNodes().stream()
+                .map(node -> (DataSource) DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(node.getUrl())
+                        .username(node.getUsername())
+                        .password(node.getPassword())
+                        .driverClassName(node.getDriverClassName())
+                        .build())
+                .toList();
+        return new ReplicaDataSource(primaryDataSource, replicas, properties.getLagQuery(),
+                properties.getMaxLag().toSeconds(), properties.getValidationTimeout());
+    }
+
+    /**
+     * Con AOT las beans de Flyway se generan al compilar y spring.flyway.enabled ya no las quita;
+     * se comprueba aquí, al arrancar, para que la ejecución de entrenamiento del archivo CDS
+     * (perfil "entrenamiento", sin base de datos) no intente migrar.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${spring.flyway.enabled:true}") boolean migrar) {
+        return flyway -> {
+            if (migrar) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    /**
+     * DataSource que usan JPA y el resto de la aplicación.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.com.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Control de admisión con cubetas de tokens por usuario autenticado o IP cliente.
+ *
+ * Buenas prácticas aplicadas:
+ * - Sin bloqueos: cada cubeta es un único AtomicLong (algoritmo GCRA, equivalente a un token
+ *   bucket) que se actualiza con compareAndSet.
+ * - Memoria acotada: las cubetas viven en una caché Caffeine con tamaño máximo y expiración
+ *   por inactividad, así un barrido de IPs no hace crecer el heap.
+ * - Respuesta 429 inmediata con Retry-After, sin pasar por el resto de la cadena ni por
+ *   la página de error.
+ * - Los usuarios autenticados tienen su propia cubeta (por nombre) con más ritmo y ráfaga.
+ *
+ * Se registra dentro de la cadena de Spring Security, después de cargar el SecurityContext,
+ * para poder distinguir usuarios autenticados. La IP es {@code request.getRemoteAddr()}:
+ * detrás de un proxy hay que activar {@code server.forward-headers-strategy}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] CUERPO_429 = "Demasiadas peticiones, intenta de nuevo en unos segundos\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final List<Limite> limites;
+    private final double multiplicadorAutenticado;
+    private final Cache<String, AtomicLong> cubetas;
+    private final LongSupplier reloj;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final LongAdder rechazadas = new LongAdder();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, LongSupplier reloj) {
+        this.limites = properties.reglasEfectivas().stream()
+                .map(r -> new Limite(r.getPattern(), (long) (1_000_000_000L / r.getPermitsPerSecond()),
+                        Math.max(1, r.getBurst())))
+                .toList();
+        this.multiplicadorAutenticado = Math.max(1, properties.getAuthenticatedMultiplier());
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .executor(Runnable::run) // mantenimiento en el hilo que llama, sin pool extra
+                .build();
+        this.reloj = reloj;
+    }
+
+    /**
+     * Límite compilado de una regla: intervalo entre peticiones y ráfaga
+     */
+    private record Limite(String patron, long intervaloNanos, int rafaga) {
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Limite limite = limite(request.getServletPath());
+        if (limite == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String usuario = usuarioAutenticado();
+        long intervalo = limite.intervaloNanos();
+        int rafaga = limite.rafaga();
+        String clave;
+        if (usuario != null) {
+            intervalo = (long) (intervalo / multiplicadorAutenticado);
+            rafaga = (int) Math.ceil(rafaga * multiplicadorAutenticado);
+            clave = limite.patron() + "|u:" + usuario;
+        } else {
+            clave = limite.patron() + "|ip:" + request.getRemoteAddr();
+        }
+
+        long espera = admitir(cubetas.get(clave, k -> new AtomicLong(Long.MIN_VALUE)), intervalo, rafaga);
+        if (espera == 0) {
+            chain.doFilter(request, response);
+        } else {
+            rechazar(response, espera);
+        }
+    }
+
+    /**
+     * GCRA: la cubeta guarda el "instante teórico de llegada" (TAT) de la siguiente petición.
+     *
+     * @return 0 si se admite; si no, nanosegundos hasta que habrá un token libre
+     */
+    private long admitir(AtomicLong tat, long intervalo, int rafaga) {
+        long tolerancia = intervalo * (rafaga - 1);
+        while (true) {
+            long ahora = reloj.getAsLong();
+            long actual = tat.get();
+            long base = Math.max(actual, ahora);
+            long adelanto = base - ahora;
+            if (adelanto > tolerancia) {
+                return adelanto - tolerancia;
+            }
+            if (tat.compareAndSet(actual, base + intervalo)) {
+                return 0;
+            }
+        }
+    }
+
+    private void rechazar(HttpServletResponse response, long esperaNanos) throws IOException {
+        rechazadas.increment();
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf((esperaNanos + 999_999_999L) / 1_000_000_000L));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(CUERPO_429.length);
+        response.getOutputStream().write(CUERPO_429);
+    }
+
+    private Limite limite(String ruta) {
+        for (Limite limite : limites) {
+            if (matcher.match(limite.patron(), ruta)) {
+                return limite;
+            }
+        }
+        return null;
+    }
+
+    private static String usuarioAutenticado() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+
+    /**
+     * Peticiones rechazadas con 429 desde el arranque
+     */
+    public long rechazadas() {
+        return rechazadas.sum();
+    }
+
+    /**
+     * Cubetas en memoria (aproximado)
+     */
+    public long cubetasActivas() {
+        cubetas.cleanUp();
+        return cubetas.estimatedSize();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.com.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Propiedades del limitador de peticiones (prefijo {@code app.rate-limit}).
+ *
+ * Ejemplo en application.properties:
+ * <pre>
+ * app.rate-limit.rules[0].pattern=/login
+ * app.rate-limit.rules[0].permits-per-second=1
+ * app.rate-limit.rules[0].burst=5
+ * app.rate-limit.authenticated-multiplier=4
+ * </pre>
+ *
+ * Las reglas se evalúan en orden y se aplica la primera cuyo patrón (estilo Ant) coincide.
+ * Si no se define ninguna, se usan las reglas por defecto de {@link #reglasPorDefecto()}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Permite desactivar el limitador por completo
+     */
+    private boolean enabled = true;
+
+    /**
+     * Número máximo de cubetas en memoria (una por cliente y regla); las menos usadas se descartan
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * Tiempo sin peticiones tras el que se descarta la cubeta de un cliente
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Factor de ritmo y ráfaga para usuarios autenticados (prioridad frente a anónimos)
+     */
+    private double authenticatedMultiplier = 4;
+
+    /**
+     * Límites por ruta, en orden de prioridad
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Reglas efectivas: las configuradas o, si no hay, las de por defecto
+     */
+    public List<Rule> reglasEfectivas() {
+        return rules.isEmpty() ? reglasPorDefecto() : rules;
+    }
+
+    /**
+     * Reglas por defecto:
+     * - login/registro muy limitados (fuerza bruta y altas masivas).
+     * - búsquedas y API JSON con un ritmo moderado.
+     * - resto de rutas con un límite amplio.
+     */
+    public static List<Rule> reglasPorDefecto() {
+        return List.of(
+                new Rule("/login", 1, 5),
+                new Rule("/register", 1, 5),
+                new Rule("/buscar/**", 10, 20),
+                new Rule("/personajes/**", 10, 20),
+                new Rule("/**", 50, 100));
+    }
+
+    /**
+     * Límite de una ruta: ritmo sostenido y ráfaga máxima
+     */
+    @Getter
+    @Setter
+    public static class Rule {
+        private String pattern;
+        private double permitsPerSecond;
+        private int burst;
+
+        public Rule() {
+        }
+
+        public Rule(String pattern, double permitsPerSecond, int burst) {
+            this.pattern = pattern;
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+}
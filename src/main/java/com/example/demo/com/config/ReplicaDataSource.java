@@ -0,0 +1,142 @@
+package com.example.demo.com.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * DataSource de lectura que reparte las conexiones entre varias réplicas.
+ *
+ * Funcionamiento:
+ * - Round-robin entre las réplicas marcadas como disponibles.
+ * - {@link #checkReplicas()} valida cada réplica y mide su retraso de replicación;
+ *   las que fallan o van demasiado retrasadas salen del reparto hasta el siguiente chequeo.
+ * - Si no queda ninguna réplica sana se usa la base de datos principal (fallback).
+ *
+ * Se usa como readOnlyDataSource de un LazyConnectionDataSourceProxy, de modo que
+ * solo las transacciones {@code readOnly = true} llegan aquí.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final int validationTimeout;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, String lagQuery,
+                             long maxLagSeconds, int validationTimeout) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.validationTimeout = validationTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    /**
+     * Mismo reparto; las credenciales se pasan tal cual a la réplica (o a la principal) elegida
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(ds -> ds.getConnection(username, password));
+    }
+
+    private Connection conectar(Conector conector) throws SQLException {
+        int total = replicas.size();
+        if (total > 0) {
+            int start = Math.floorMod(next.getAndIncrement(), total);
+            for (int i = 0; i < total; i++) {
+                Replica replica = replicas.get((start + i) % total);
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    return conector.abrir(replica.dataSource);
+                } catch (SQLException e) {
+                    // La réplica ha caído entre chequeos: se saca del reparto y se prueba la siguiente
+                    replica.available = false;
+                    log.warn("Réplica no disponible, se excluye del reparto: {}", e.getMessage());
+                }
+            }
+        }
+        return conector.abrir(primary);
+    }
+
+    /**
+     * Health check periódico: valida cada réplica y comprueba su retraso de replicación.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.read-replicas.health-check-interval:PT10S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available;
+            try (Connection con = replica.dataSource.getConnection()) {
+                available = con.isValid(validationTimeout) && lagSeconds(con) <= maxLagSeconds;
+            } catch (SQLException e) {
+                available = false;
+            }
+            if (replica.available != available) {
+                log.info("Réplica {}", available ? "vuelve al reparto" : "excluida del reparto");
+            }
+            replica.available = available;
+        }
+    }
+
+    /**
+     * Número de réplicas que reciben lecturas ahora mismo
+     */
+    public long availableReplicas() {
+        return replicas.stream().filter(r -> r.available).count();
+    }
+
+    private long lagSeconds(Connection con) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0;
+        }
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(lagQuery)) {
+            // Sin fila (p.ej. replicación parada) se trata como retraso infinito
+            return rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Conector {
+        Connection abrir(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
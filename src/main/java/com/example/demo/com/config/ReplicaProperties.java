@@ -0,0 +1,62 @@
+package com.example.demo.com.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Propiedades de las réplicas de solo lectura (prefijo {@code app.datasource.read-replicas}).
+ *
+ * Ejemplo en application.properties:
+ * <pre>
+ * app.datasource.read-replicas.nodes[0].url=jdbc:mysql://replica1:3306/dragonball
+ * app.datasource.read-replicas.nodes[0].username=lector
+ * app.datasource.read-replicas.nodes[0].password=secreto
+ * app.datasource.read-replicas.max-lag=5s
+ * </pre>
+ *
+ * Si no se define ningún nodo, todas las consultas van a la base de datos principal.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.read-replicas")
+public class ReplicaProperties {
+
+    /**
+     * Réplicas disponibles; se reparten en round-robin
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Retraso máximo de replicación admitido antes de sacar una réplica del reparto
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Consulta opcional que devuelve el retraso en segundos (primera columna).
+     * Ej. en MySQL: una tabla heartbeat con {@code TIMESTAMPDIFF(SECOND, ts, NOW())}.
+     */
+    private String lagQuery;
+
+    /**
+     * Tiempo máximo (segundos) para validar una conexión durante el health check
+     */
+    private int validationTimeout = 2;
+
+    /**
+     * Datos de conexión de una réplica
+     */
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
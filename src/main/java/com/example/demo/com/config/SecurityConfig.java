@@ -1,6 +1,9 @@
 package com.example.demo.com.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,6 +12,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 
 import com.example.demo.com.service.CustomUserDetailsService;
 
@@ -19,10 +23,14 @@ import com.example.demo.com.service.CustomUserDetailsService;
  * - Uso de PasswordEncoder seguro (BCrypt) para almacenar contraseñas.
  * - Separación de rutas públicas y protegidas.
  * - Configuración de login y logout personalizada.
+ * - Limitación de peticiones por usuario/IP (RateLimitFilter) antes de autorizar.
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
@@ -44,7 +52,13 @@ public class SecurityConfig {
      * Configura las reglas de seguridad HTTP.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitProperties rateLimit) throws Exception {
+        // 🔹 Limitador de peticiones: no se declara como @Bean para que Spring Boot no lo
+        //    registre también fuera de la cadena de seguridad (sin usuario autenticado)
+        if (rateLimit.isEnabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimit), SecurityContextHolderFilter.class);
+        }
+
         http
             // 🔹 Desactiva CSRF temporalmente (útil para pruebas, en producción revisar)
             .csrf(csrf -> csrf.disable())
@@ -56,7 +70,9 @@ public class SecurityConfig {
                         "/login",
                         "/vista/personajesweb",
                         "/css/**",
-                        "/js/**"
+                        "/js/**",
+                        "/actuator/health",
+                        "/actuator/health/**" // sondas del orquestador (sin detalles si no hay sesión)
                     ).permitAll()   // rutas públicas
                     .anyRequest().authenticated() // resto protegido
             )
@@ -66,7 +82,7 @@ public class SecurityConfig {
                     .loginPage("/login") // página de login personalizada
                     .successHandler((request, response, authentication) -> {
                         // Se ejecuta cuando el login es correcto
-                        System.out.println("Usuario logeado: " + authentication.getName());
+                        log.debug("Usuario logeado: {}", authentication.getName());
                         response.sendRedirect("/vista/personajesweb"); // redirige al inicio
                     })
                     .permitAll()
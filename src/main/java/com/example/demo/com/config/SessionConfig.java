@@ -0,0 +1,33 @@
+package com.example.demo.com.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import com.example.demo.com.session.OffHeapSessionRepository;
+
+/**
+ * Almacenamiento de sesiones HTTP.
+ *
+ * - {@code app.session.store=offheap} (por defecto): Spring Session con
+ *   {@link OffHeapSessionRepository}, sesiones compactas fuera del heap.
+ * - {@code app.session.store=heap}: sesión estándar del contenedor (Tomcat).
+ *
+ * Cualquier otro SessionRepository de Spring Session (JDBC, Redis...) se puede enchufar
+ * con un bean propio en lugar de este.
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "app.session.store", havingValue = "offheap", matchIfMissing = true)
+public class SessionConfig {
+
+    @Bean
+    public OffHeapSessionRepository sessionRepository(
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout) {
+        return new OffHeapSessionRepository(timeout);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.com.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.com.client.ClienteUpstream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cliente de la API externa de Dragon Ball (timeouts, reintentos, cobertura y circuit breaker).
+ * Configurable con las propiedades {@code app.upstream.*} (ver {@link UpstreamProperties}).
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamConfig {
+
+    @Bean
+    public ClienteUpstream clienteUpstream(UpstreamProperties properties, ObjectMapper objectMapper) {
+        return new ClienteUpstream(properties, objectMapper);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.com.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Propiedades del cliente de la API externa de Dragon Ball (prefijo {@code app.upstream}).
+ *
+ * Ejemplo en application.properties:
+ * <pre>
+ * app.upstream.url=https://dragonball-api.com/api/characters?limit=10
+ * app.upstream.request-timeout=3s
+ * app.upstream.deadline=10s
+ * app.upstream.hedge-delay=800ms
+ * app.upstream.breaker.failure-threshold=5
+ * app.upstream.breaker.open-duration=30s
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.upstream")
+public class UpstreamProperties {
+
+    /**
+     * Primera página del listado de personajes; las siguientes se siguen con links.next
+     */
+    private String url = "https://dragonball-api.com/api/characters?limit=10";
+
+    /**
+     * Tiempo máximo para abrir una conexión nueva (las demás se reutilizan con keep-alive)
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Tiempo máximo de cada intento hasta recibir la respuesta
+     */
+    private Duration requestTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Plazo total por página, sumando intentos, esperas y peticiones de cobertura
+     */
+    private Duration deadline = Duration.ofSeconds(10);
+
+    /**
+     * Reintentos tras el primer intento (solo errores de red, timeouts, 5xx y 429)
+     */
+    private int maxRetries = 2;
+
+    /**
+     * Espera base y máxima entre reintentos (backoff exponencial con jitter completo)
+     */
+    private Duration backoffBase = Duration.ofMillis(200);
+    private Duration backoffMax = Duration.ofSeconds(2);
+
+    /**
+     * Si un intento no ha respondido en este tiempo se lanza una segunda petición igual
+     * y se usa la primera que responda; 0 desactiva las peticiones de cobertura
+     */
+    private Duration hedgeDelay = Duration.ofMillis(800);
+
+    private Breaker breaker = new Breaker();
+
+    /**
+     * Circuit breaker: tras varios fallos seguidos deja de llamar a la API durante un tiempo
+     */
+    @Getter
+    @Setter
+    public static class Breaker {
+
+        /**
+         * Páginas fallidas seguidas (ya agotados los reintentos) que abren el circuito
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * Tiempo con el circuito abierto antes de dejar pasar una petición de prueba
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
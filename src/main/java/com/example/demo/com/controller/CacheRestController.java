@@ -0,0 +1,26 @@
+package com.example.demo.com.controller;
+
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.com.service.CatalogoCacheService;
+
+/**
+ * Endpoint de consulta de las estadísticas de la caché del catálogo.
+ */
+@RestController
+public class CacheRestController {
+
+    private final CatalogoCacheService catalogoCacheService;
+
+    public CacheRestController(CatalogoCacheService catalogoCacheService) {
+        this.catalogoCacheService = catalogoCacheService;
+    }
+
+    @GetMapping("/cache/estadisticas")
+    public Map<String, Object> estadisticas() {
+        return catalogoCacheService.estadisticas();
+    }
+}
@@ -2,46 +2,121 @@ package com.example.demo.com.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.demo.com.service.BusquedaTextoService;
+import com.example.demo.com.service.EventosCatalogoService;
 import com.example.demo.com.service.PersonajeService;
-import com.example.demo.com.model.Personaje;
+import com.example.demo.com.service.PopularidadService;
+import com.example.demo.com.service.SugerenciasService;
+import com.example.demo.com.dto.Pagina;
+import com.example.demo.com.dto.PersonajeDetalle;
+import com.example.demo.com.dto.PersonajePopular;
+import com.example.demo.com.dto.PersonajeResumen;
+import com.example.demo.com.dto.ResultadoBusqueda;
+import com.example.demo.com.dto.Sugerencia;
 
 @RestController
 public class PersonajeRestController {
 
     private final PersonajeService personajeService;
+    private final BusquedaTextoService busquedaTextoService;
+    private final SugerenciasService sugerenciasService;
+    private final PopularidadService popularidadService;
+    private final EventosCatalogoService eventosCatalogoService;
 
-    public PersonajeRestController(PersonajeService personajeService) {
+    public PersonajeRestController(PersonajeService personajeService, BusquedaTextoService busquedaTextoService,
+                                   SugerenciasService sugerenciasService, PopularidadService popularidadService,
+                                   EventosCatalogoService eventosCatalogoService) {
         this.personajeService = personajeService;
+        this.busquedaTextoService = busquedaTextoService;
+        this.sugerenciasService = sugerenciasService;
+        this.popularidadService = popularidadService;
+        this.eventosCatalogoService = eventosCatalogoService;
     }
 
+    // Catálogo como resúmenes (sin descripción ni relaciones); el detalle completo en /personajes/{id}
     @GetMapping("/personajes")
-    public List<Personaje> hello() {
-        return personajeService.obtenerPersonajes();
+    public List<PersonajeResumen> hello() {
+        return personajeService.obtenerResumenes();
     }
 
+    // Ranking de los personajes con más favoritos (contadores en memoria, O(K))
+    @GetMapping("/personajes/populares")
+    public List<PersonajePopular> populares(@RequestParam(defaultValue = "10") int k) {
+        return popularidadService.ranking(Math.clamp(k, 1, 100));
+    }
+
+    // Cambios del catálogo y de los contadores de favoritos en tiempo real (Server-Sent Events).
+    // EventSource reenvía Last-Event-ID al reconectar; "reinicio" indica que hay que recargar /personajes
+    @GetMapping(value = "/personajes/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoId) {
+        try {
+            return eventosCatalogoService.suscribir(ultimoId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Ficha completa de un personaje (con descripción, sin relaciones)
     @GetMapping("/personajes/{id}")
-    public ResponseEntity<Personaje> obtenerPersonaje(@PathVariable Long id) {
-        return personajeService.obtenerPorId(id)
+    public ResponseEntity<PersonajeDetalle> obtenerPersonaje(@PathVariable Long id) {
+        return personajeService.obtenerDetalle(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Busca personajes por nombre
     @GetMapping("/buscar/nombre")
-    public List<Personaje> buscarPorNombre(@RequestParam String nombre) {
+    public List<PersonajeResumen> buscarPorNombre(@RequestParam String nombre) {
         return personajeService.buscarPorNombre(nombre);
     }
 
     // Busca personajes por raza
     @GetMapping("/buscar/raza")
-    public List<Personaje> buscarPorRace(@RequestParam String race) {
+    public List<PersonajeResumen> buscarPorRace(@RequestParam String race) {
         return personajeService.buscarPorRaza(race);
     }
+
+    // Personajes por rango de Ki base (valores normalizados, p.ej. "60.000.000" -> 6.0E7)
+    @GetMapping("/buscar/ki")
+    public List<PersonajeResumen> buscarPorKi(@RequestParam double min,
+                                              @RequestParam(defaultValue = "1.7976931348623157E308") double max,
+                                              @RequestParam(defaultValue = "50") int limite) {
+        return personajeService.buscarPorRangoKi(min, max, Math.clamp(limite, 1, 200));
+    }
+
+    // Los K personajes más fuertes (Ki máximo) de una raza
+    @GetMapping("/buscar/mas-fuertes")
+    public List<PersonajeResumen> masFuertes(@RequestParam String race, @RequestParam(defaultValue = "5") int k) {
+        return personajeService.masFuertesPorRaza(race, Math.clamp(k, 1, 50));
+    }
+
+    // Búsqueda de texto completo (nombre, descripción, raza y afiliación) ordenada por relevancia
+    @GetMapping("/buscar/texto")
+    public Pagina<ResultadoBusqueda> buscarTexto(@RequestParam String q,
+                                                 @RequestParam(defaultValue = "0") int pagina,
+                                                 @RequestParam(defaultValue = "10") int tamano) {
+        try {
+            return busquedaTextoService.buscar(q, Math.max(pagina, 0), Math.clamp(tamano, 1, 50));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Autocompletado del buscador: nombres por prefijo (tolera una errata), los más populares primero
+    @GetMapping("/buscar/sugerir")
+    public List<Sugerencia> sugerir(@RequestParam String q, @RequestParam(defaultValue = "10") int k) {
+        return sugerenciasService.sugerir(q, Math.max(k, 1));
+    }
 }
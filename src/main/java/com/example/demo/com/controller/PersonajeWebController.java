@@ -1,6 +1,5 @@
 package com.example.demo.com.controller;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -12,9 +11,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import com.example.demo.com.dto.PersonajeResumen;
 import com.example.demo.com.model.Personaje;
 import com.example.demo.com.model.Usuario;
 import com.example.demo.com.service.PersonajeService;
+import com.example.demo.com.service.RecomendacionService;
 import com.example.demo.com.service.UsuarioService;
 
 /**
@@ -31,10 +32,13 @@ public class PersonajeWebController {
 
 	private final PersonajeService personajeService;
 	private final UsuarioService usuarioService;
+	private final RecomendacionService recomendacionService;
 
-	public PersonajeWebController(PersonajeService personajeService,UsuarioService usuarioService) {
+	public PersonajeWebController(PersonajeService personajeService,UsuarioService usuarioService,
+			RecomendacionService recomendacionService) {
 		this.personajeService = personajeService;
 		this.usuarioService = usuarioService;
+		this.recomendacionService = recomendacionService;
 	}
 
 	/**
@@ -46,17 +50,13 @@ public class PersonajeWebController {
 	 */
 	@GetMapping("/personajesweb")
 	public String mostrarPersonajes(Model model,@AuthenticationPrincipal org.springframework.security.core.userdetails.UserDetails usuario) {
-		// Obtener todos los personajes desde la BD o la API
-		List<Personaje> personajes = personajeService.obtenerPersonajes();
+		// Resúmenes del catálogo (snapshot, BD o API): la entidad completa solo se carga en el detalle
+		List<PersonajeResumen> personajes = personajeService.obtenerResumenes();
 		model.addAttribute("personajes", personajes);
 
 		if(usuario != null) {
-			// Crear un Set con los IDs de los favoritos del usuario
-			Set<Long> favoritosIds = usuario != null ?
-					usuarioService.obtenerFavoritos(usuario.getUsername()).stream()
-					.map(Personaje::getId)  // Extraemos solo los IDs
-					.collect(Collectors.toSet())
-					: Collections.emptySet();   // Si no hay usuario autenticado, lista vacía
+			// Solo los IDs de los favoritos del usuario, sin cargar las entidades
+			Set<Long> favoritosIds = usuarioService.obtenerFavoritosIds(usuario.getUsername());
 			model.addAttribute("favoritosIds", favoritosIds);
 		}
 		// Retorna la plantilla Thymeleaf: src/main/resources/templates/personajes.html
@@ -76,6 +76,8 @@ public class PersonajeWebController {
 		Personaje personaje = personajeService.obtenerPorId(id)
 				.orElseThrow(() -> new RuntimeException("Personaje no encontrado"));
 		model.addAttribute("personaje", personaje);
+		// "Los fans de este personaje también tienen como favoritos…" (precalculado, O(N))
+		model.addAttribute("recomendados", recomendacionService.recomendados(id, 6));
 
 		return "detalle-personaje"; // plantilla Thymeleaf
 	}
@@ -86,12 +88,12 @@ public class PersonajeWebController {
 	        return "redirect:/login";
 	    }
 
-	    // Obtener la lista de personajes favoritos completos
-	    List<Personaje> personajes = usuarioService.obtenerFavoritos(userDetails.getUsername());
+	    // Resúmenes de los personajes favoritos (consulta directa, sin entidades)
+	    List<PersonajeResumen> personajes = usuarioService.obtenerFavoritosResumen(userDetails.getUsername());
 
 	    // Crear un Set con los IDs de los favoritos para marcar ❤️ en la plantilla
 	    Set<Long> favoritosIds = personajes.stream()
-	                                      .map(Personaje::getId)
+	                                      .map(PersonajeResumen::id)
 	                                      .collect(Collectors.toSet());
 
 	    model.addAttribute("personajes", personajes);
@@ -0,0 +1,10 @@
+package com.example.demo.com.dto;
+
+/**
+ * Fila de usuario_favoritos.
+ *
+ * @param usuarioId   ID del usuario
+ * @param personajeId ID del personaje favorito
+ */
+public record FavoritoUsuario(Long usuarioId, Long personajeId) {
+}
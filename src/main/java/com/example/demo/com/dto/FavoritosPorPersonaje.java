@@ -0,0 +1,10 @@
+package com.example.demo.com.dto;
+
+/**
+ * Número de usuarios que tienen un personaje como favorito.
+ *
+ * @param personajeId ID del personaje
+ * @param total       número de usuarios
+ */
+public record FavoritosPorPersonaje(Long personajeId, long total) {
+}
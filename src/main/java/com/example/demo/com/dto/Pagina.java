@@ -0,0 +1,14 @@
+package com.example.demo.com.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados para respuestas JSON paginadas.
+ *
+ * @param contenido elementos de la página
+ * @param pagina    número de página (empieza en 0)
+ * @param tamano    tamaño de página solicitado
+ * @param total     número total de elementos
+ */
+public record Pagina<T>(List<T> contenido, int pagina, int tamano, long total) {
+}
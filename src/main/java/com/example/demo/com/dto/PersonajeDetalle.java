@@ -0,0 +1,20 @@
+package com.example.demo.com.dto;
+
+import com.example.demo.com.model.Personaje;
+
+/**
+ * Ficha completa de un personaje para el JSON de /personajes/{id}.
+ *
+ * - Igual que PersonajeResumen más la descripción larga; sin la colección usuarios,
+ *   que es lazy y no se puede serializar fuera de la transacción (open-in-view desactivado).
+ * - Se construye dentro de la transacción desde la entidad cacheada (findById usa la caché
+ *   de segundo nivel), así que no añade consultas.
+ */
+public record PersonajeDetalle(Long id, String name, String ki, String maxKi, String race, String gender,
+                               String description, String image, String affiliation) {
+
+    public static PersonajeDetalle de(Personaje p) {
+        return new PersonajeDetalle(p.getId(), p.getName(), p.getKi(), p.getMaxKi(), p.getRace(), p.getGender(),
+                p.getDescription(), p.getImage(), p.getAffiliation());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.com.dto;
+
+/**
+ * Entrada del ranking de personajes más favoritos.
+ *
+ * @param id        ID del personaje
+ * @param name      nombre
+ * @param favoritos número de usuarios que lo tienen como favorito
+ */
+public record PersonajePopular(Long id, String name, long favoritos) {
+}
@@ -0,0 +1,21 @@
+package com.example.demo.com.dto;
+
+import com.example.demo.com.model.Personaje;
+
+/**
+ * Resumen de solo lectura de un personaje para listados (personajes.html, favoritos y
+ * el JSON de /personajes).
+ *
+ * - Se rellena directamente desde la consulta (constructor en JPQL): sin entidad gestionada,
+ *   sin la descripción larga y sin la colección usuarios.
+ * - Contiene exactamente los campos que pinta la tarjeta del listado; la entidad completa
+ *   solo se carga en la página de detalle.
+ */
+public record PersonajeResumen(Long id, String name, String ki, String maxKi, String race, String gender,
+                               String image, String affiliation) {
+
+    public static PersonajeResumen de(Personaje p) {
+        return new PersonajeResumen(p.getId(), p.getName(), p.getKi(), p.getMaxKi(), p.getRace(), p.getGender(),
+                p.getImage(), p.getAffiliation());
+    }
+}
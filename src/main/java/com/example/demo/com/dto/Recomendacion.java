@@ -0,0 +1,12 @@
+package com.example.demo.com.dto;
+
+/**
+ * Personaje recomendado en la página de detalle de otro.
+ *
+ * @param id       ID del personaje recomendado
+ * @param name     nombre
+ * @param image    URL de la imagen
+ * @param usuarios número de usuarios que tienen ambos personajes como favoritos
+ */
+public record Recomendacion(Long id, String name, String image, int usuarios) {
+}
@@ -0,0 +1,14 @@
+package com.example.demo.com.dto;
+
+/**
+ * Personaje encontrado por la búsqueda de texto completo.
+ *
+ * @param id        ID del personaje
+ * @param name      nombre
+ * @param race      raza
+ * @param image     URL de la imagen
+ * @param score     relevancia (BM25F); mayor es mejor
+ * @param fragmento extracto de la descripción con los términos resaltados ({@code <mark>}), ya escapado como HTML
+ */
+public record ResultadoBusqueda(Long id, String name, String race, String image, double score, String fragmento) {
+}
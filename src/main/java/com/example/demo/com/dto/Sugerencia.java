@@ -0,0 +1,11 @@
+package com.example.demo.com.dto;
+
+/**
+ * Sugerencia de autocompletado.
+ *
+ * @param id        ID del personaje
+ * @param name      nombre
+ * @param favoritos número de usuarios que lo tienen como favorito (popularidad)
+ */
+public record Sugerencia(Long id, String name, long favoritos) {
+}
@@ -0,0 +1,22 @@
+package com.example.demo.com.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado cuando termina una sincronización del catálogo con la API externa.
+ *
+ * Los componentes que mantienen datos derivados del catálogo (cachés, índices...)
+ * lo escuchan con @EventListener para invalidarse o actualizarse.
+ *
+ * @param personajeIds IDs de los personajes guardados en la sincronización
+ * @param origenRemoto true si la sincronización la hizo otro nodo (llega por el registro de cambios)
+ */
+public record CatalogoActualizadoEvent(List<Long> personajeIds, boolean origenRemoto) {
+
+    /**
+     * Sincronización hecha en este nodo
+     */
+    public CatalogoActualizadoEvent(List<Long> personajeIds) {
+        this(personajeIds, false);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.com.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado cuando un usuario añade o quita un personaje de sus favoritos.
+ *
+ * Se escucha con @TransactionalEventListener para actuar solo si la transacción se confirma.
+ *
+ * @param usuarioId   ID del usuario
+ * @param personajeId ID del personaje
+ * @param agregado    true si se añadió, false si se quitó
+ * @param otrosFavoritos resto de favoritos del usuario tras el cambio
+ * @param origenRemoto true si el cambio se hizo en otro nodo (llega por el registro de cambios)
+ */
+public record FavoritoCambiadoEvent(Long usuarioId, Long personajeId, boolean agregado, List<Long> otrosFavoritos,
+                                    boolean origenRemoto) {
+
+    /**
+     * Cambio hecho en este nodo
+     */
+    public FavoritoCambiadoEvent(Long usuarioId, Long personajeId, boolean agregado, List<Long> otrosFavoritos) {
+        this(usuarioId, personajeId, agregado, otrosFavoritos, false);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.com.event;
+
+/**
+ * Evento publicado cuando cambia el número de favoritos de un personaje.
+ *
+ * Lo publica PopularidadService después de actualizar su contador en memoria
+ * (cambios de este nodo, de otros nodos o reconstrucciones).
+ *
+ * @param personajeId ID del personaje
+ * @param total       número de favoritos tras el cambio
+ */
+public record PopularidadCambiadaEvent(Long personajeId, long total) {
+}
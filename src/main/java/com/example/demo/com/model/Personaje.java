@@ -5,6 +5,11 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
+import com.example.demo.com.util.KiParser;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -16,11 +21,21 @@ import java.util.Set;
  * - equals/hashCode solo por ID para evitar problemas con colecciones lazy y Hibernate.
  * - Colecciones ManyToMany son lazy por defecto para mejorar rendimiento.
  * - Campos que no se persisten directamente se marcan como @Transient.
+ * - Caché de segundo nivel (región "personaje"): los personajes casi nunca cambian,
+ *   así que findById no vuelve a la base de datos. Ver ehcache.xml.
  */
 @Getter
 @Setter
 @Entity
-@Table(name = "personaje") // Nombre de la tabla en la base de datos
+@Table(name = "personaje", // Nombre de la tabla en la base de datos
+       indexes = { // Definidos en la migración V2; se declaran aquí para documentar el modelo
+           @Index(name = "idx_personaje_race", columnList = "race"),
+           @Index(name = "idx_personaje_affiliation", columnList = "affiliation"),
+           @Index(name = "idx_personaje_ki_valor", columnList = "ki_valor"),
+           @Index(name = "idx_personaje_race_max_ki_valor", columnList = "race, max_ki_valor")
+       })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "personaje")
 @EqualsAndHashCode(onlyExplicitlyIncluded = true) // Solo ID define igualdad
 public class Personaje {
 
@@ -47,6 +62,13 @@ public class Personaje {
      */
     private String maxKi;
 
+    /**
+     * Ki y Ki máximo normalizados a número (ver KiParser) para poder ordenar y filtrar
+     * por poder en la base de datos. Se calculan al guardar; null si el texto no es numérico.
+     */
+    private Double kiValor;
+    private Double maxKiValor;
+
     private String race;   // Raza del personaje
     private String gender; // Género del personaje
 
@@ -97,4 +119,14 @@ public class Personaje {
         this.affiliation = affiliation;
         this.deletedAt = deletedAt;
     }
+
+    /**
+     * Mantiene los valores numéricos sincronizados con los textos de Ki
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizarKi() {
+        this.kiValor = KiParser.parse(ki);
+        this.maxKiValor = KiParser.parse(maxKi);
+    }
 }
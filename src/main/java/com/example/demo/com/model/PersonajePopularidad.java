@@ -0,0 +1,40 @@
+package com.example.demo.com.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Número de usuarios que tienen un personaje como favorito (tabla personaje_popularidad).
+ *
+ * Es una copia persistida de los contadores en memoria de PopularidadService, que la
+ * actualiza de forma asíncrona. La fuente de verdad sigue siendo usuario_favoritos.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "personaje_popularidad")
+public class PersonajePopularidad {
+
+    /**
+     * ID del personaje (clave primaria, sin generación)
+     */
+    @Id
+    private Long personajeId;
+
+    /**
+     * Número de usuarios que lo tienen como favorito
+     */
+    @Column(nullable = false)
+    private long total;
+
+    /**
+     * Constructor vacío obligatorio para JPA
+     */
+    protected PersonajePopularidad() {}
+
+    public PersonajePopularidad(Long personajeId, long total) {
+        this.personajeId = personajeId;
+        this.total = total;
+    }
+}
@@ -33,8 +33,9 @@ public class Usuario {
 
     /**
      * Nombre de usuario (username)
-     * No es único por ahora; se podría agregar @Column(unique = true) si deseas evitar duplicados
+     * Único: índice uk_usuarios_username (migración V2), usado por findByUsername/existsByUsername
      */
+    @Column(unique = true)
     private String username;
 
     /**
@@ -49,6 +50,7 @@ public class Usuario {
      * Relación ManyToMany con la entidad Personaje
      * 
      * - @JoinTable define la tabla intermedia usuario_favoritos
+     *   (clave primaria compuesta usuario_id + personaje_id, migración V2)
      * - joinColumns indica la columna que apunta a Usuario
      * - inverseJoinColumns indica la columna que apunta a Personaje
      * - Se inicializa con HashSet para evitar NullPointerException y permitir add/remove
@@ -0,0 +1,11 @@
+package com.example.demo.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.demo.com.model.PersonajePopularidad;
+
+/**
+ * Repositorio de los contadores de favoritos persistidos.
+ */
+public interface PersonajePopularidadRepository extends JpaRepository<PersonajePopularidad, Long> {
+}
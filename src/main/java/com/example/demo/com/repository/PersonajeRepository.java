@@ -1,7 +1,17 @@
 package com.example.demo.com.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.com.dto.FavoritosPorPersonaje;
+import com.example.demo.com.dto.PersonajeResumen;
 import com.example.demo.com.model.Personaje;
+
+import jakarta.persistence.QueryHint;
+
 import java.util.List;
 
 /**
@@ -11,15 +21,119 @@ import java.util.List;
  * - Extender JpaRepository para heredar métodos CRUD básicos:
  *      - findAll(), findById(), save(), delete(), existsById(), etc.
  * - Spring Data JPA genera la implementación automáticamente, sin necesidad de escribir SQL.
- * 
- * Mejoras posibles para proyectos más grandes:
- * 1️⃣ Consultas por campos específicos usando convenciones de Spring Data:
- *      - findByNameContainingIgnoreCase(String nombre)
- *      - findByRaceContainingIgnoreCase(String race)
- *    Esto evita traer todos los registros y filtrar en memoria.
+ * - Las consultas de catálogo usan la caché de consultas de Hibernate (región "personaje-busquedas"):
+ *   guarda los IDs del resultado y las entidades se resuelven desde la región "personaje".
+ *   Hibernate descarta esos resultados en cuanto se modifica la tabla personaje.
+ * - Las consultas son {@code @Transactional(readOnly = true)} también fuera de una transacción del
+ *   servicio (p. ej. obtenerResumenes, que solo escribe si tiene que cargar desde la API): así se
+ *   sirven desde una réplica de lectura (ver DataSourceConfig). Los métodos heredados de
+ *   JpaRepository ya lo son; las consultas declaradas aquí no, si no se indica.
  *
- * 2️⃣ @Query personalizado si necesitas SQL complejo.
- * 3️⃣ Paginación y sorting con Pageable si esperas muchos registros.
+ * Mejoras posibles para proyectos más grandes:
+ * 1️⃣ @Query personalizado si necesitas SQL complejo.
+ * 2️⃣ Paginación y sorting con Pageable si esperas muchos registros.
  */
 public interface PersonajeRepository extends JpaRepository<Personaje, Long> {
+
+    String CACHE_BUSQUEDAS = "personaje-busquedas";
+
+    @Override
+    @Transactional(readOnly = true)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CACHE_BUSQUEDAS)
+    })
+    List<Personaje> findAll();
+
+    /**
+     * Todo el catálogo como resúmenes para los listados (sin descripción ni entidades gestionadas)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+           select new com.example.demo.com.dto.PersonajeResumen(
+               p.id, p.name, p.ki, p.maxKi, p.race, p.gender, p.image, p.affiliation)
+           from Personaje p
+           order by p.id
+           """)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CACHE_BUSQUEDAS)
+    })
+    List<PersonajeResumen> findResumenes();
+
+    /**
+     * Resúmenes de los personajes cuyo nombre contiene el texto indicado (sin distinguir mayúsculas)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+           select new com.example.demo.com.dto.PersonajeResumen(
+               p.id, p.name, p.ki, p.maxKi, p.race, p.gender, p.image, p.affiliation)
+           from Personaje p
+           where upper(p.name) like upper(concat('%', :nombre, '%'))
+           order by p.id
+           """)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CACHE_BUSQUEDAS)
+    })
+    List<PersonajeResumen> findResumenesPorNombre(String nombre);
+
+    /**
+     * Resúmenes de los personajes cuya raza contiene el texto indicado (sin distinguir mayúsculas)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+           select new com.example.demo.com.dto.PersonajeResumen(
+               p.id, p.name, p.ki, p.maxKi, p.race, p.gender, p.image, p.affiliation)
+           from Personaje p
+           where upper(p.race) like upper(concat('%', :race, '%'))
+           order by p.id
+           """)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CACHE_BUSQUEDAS)
+    })
+    List<PersonajeResumen> findResumenesPorRaza(String race);
+
+    /**
+     * Resúmenes de los personajes con Ki base dentro del rango, de menor a mayor
+     * (índice idx_personaje_ki_valor)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+           select new com.example.demo.com.dto.PersonajeResumen(
+               p.id, p.name, p.ki, p.maxKi, p.race, p.gender, p.image, p.affiliation)
+           from Personaje p
+           where p.kiValor between :min and :max
+           order by p.kiValor asc
+           """)
+    List<PersonajeResumen> findResumenesPorRangoKi(double min, double max, Limit limit);
+
+    /**
+     * Resúmenes de los personajes más fuertes (Ki máximo) de una raza
+     * (índice idx_personaje_race_max_ki_valor)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+           select new com.example.demo.com.dto.PersonajeResumen(
+               p.id, p.name, p.ki, p.maxKi, p.race, p.gender, p.image, p.affiliation)
+           from Personaje p
+           where p.race = :race and p.maxKiValor is not null
+           order by p.maxKiValor desc
+           """)
+    List<PersonajeResumen> findResumenesMasFuertes(String race, Limit limit);
+
+    /**
+     * Número de usuarios que tienen cada personaje como favorito (popularidad); los personajes
+     * sin ningún favorito no aparecen.
+     * Agrega sobre usuario_favoritos: pensado para cargas iniciales, no para cada petición.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+           select new com.example.demo.com.dto.FavoritosPorPersonaje(p.id, count(u))
+           from Personaje p
+           join p.usuarios u
+           group by p.id
+           """)
+    List<FavoritosPorPersonaje> contarFavoritos();
 }
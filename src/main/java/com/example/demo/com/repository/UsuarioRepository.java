@@ -1,11 +1,16 @@
 package com.example.demo.com.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.example.demo.com.dto.FavoritoUsuario;
+import com.example.demo.com.dto.PersonajeResumen;
 import com.example.demo.com.model.Usuario;
 
 /**
@@ -41,6 +46,30 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
            """)
     Optional<Usuario> findByUsernameWithFavoritos(@Param("username") String username);
 
+    /**
+     * Favoritos de un usuario como resúmenes (sin cargar el usuario ni las entidades).
+     */
+    @Query("""
+           select new com.example.demo.com.dto.PersonajeResumen(
+               p.id, p.name, p.ki, p.maxKi, p.race, p.gender, p.image, p.affiliation)
+           from Usuario u
+           join u.favoritos p
+           where u.username = :username
+           order by p.id
+           """)
+    List<PersonajeResumen> findFavoritosResumen(@Param("username") String username);
+
+    /**
+     * Solo los IDs de los favoritos de un usuario (para marcar ❤️ en los listados).
+     */
+    @Query("""
+           select p.id
+           from Usuario u
+           join u.favoritos p
+           where u.username = :username
+           """)
+    Set<Long> findFavoritosIds(@Param("username") String username);
+
     /**
      * Obtener solo el ID del usuario por username.
      * 
@@ -54,10 +83,23 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     }
     boolean existsByUsername(String username);
 
+    /**
+     * Todos los pares (usuario, favorito) ordenados por usuario, en streaming.
+     *
+     * - Pensado para reconstrucciones en memoria (recomendaciones) sin cargar la tabla entera.
+     * - Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @Query("""
+           select new com.example.demo.com.dto.FavoritoUsuario(u.id, p.id)
+           from Usuario u
+           join u.favoritos p
+           order by u.id
+           """)
+    Stream<FavoritoUsuario> streamFavoritos();
+
     /**
      * Buenas prácticas futuras:
-     * 1️⃣ Considerar agregar índices únicos en username para mejorar consultas.
-     * 2️⃣ Usar @EntityGraph como alternativa a JOIN FETCH para cargar colecciones específicas.
-     * 3️⃣ Evitar cargar colecciones muy grandes si no se necesitan, para mejorar rendimiento.
+     * 1️⃣ Usar @EntityGraph como alternativa a JOIN FETCH para cargar colecciones específicas.
+     * 2️⃣ Evitar cargar colecciones muy grandes si no se necesitan, para mejorar rendimiento.
      */
 }
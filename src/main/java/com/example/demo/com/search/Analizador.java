@@ -0,0 +1,128 @@
+package com.example.demo.com.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Analizador de texto para el índice de búsqueda.
+ *
+ * Pasos:
+ * 1️⃣ Normalización: minúsculas y sin acentos ("Príncipe" → "principe").
+ * 2️⃣ Tokenización por caracteres alfanuméricos, conservando la posición en el texto
+ *    original para poder resaltar los términos en los fragmentos.
+ * 3️⃣ Eliminación de palabras vacías en español e inglés.
+ * 4️⃣ Stemming ligero de sufijos comunes en ambos idiomas ("guerreros" → "guerrer",
+ *    "fighters" → "fighter", "transformations" → "transformation").
+ *
+ * El mismo análisis se aplica al indexar y al buscar, así que basta con que sea consistente.
+ */
+public final class Analizador {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            // español
+            "el", "la", "los", "las", "lo", "un", "una", "unos", "unas", "de", "del", "al", "y", "e", "o",
+            "u", "en", "a", "por", "para", "con", "sin", "que", "se", "su", "sus", "es", "son", "como",
+            "mas", "pero", "le", "les", "ha", "fue", "era", "muy", "este", "esta", "ese", "esa",
+            // inglés
+            "the", "an", "and", "or", "of", "to", "in", "on", "is", "are", "was", "were", "be", "it",
+            "its", "his", "her", "he", "she", "they", "with", "for", "as", "by", "at", "from", "that",
+            "this", "has", "have", "had", "but", "not", "who", "which");
+
+    private Analizador() {
+    }
+
+    /**
+     * Token analizado con su posición en el texto original
+     */
+    public record Token(String termino, int inicio, int fin) {
+    }
+
+    /**
+     * Analiza un texto completo.
+     *
+     * @param texto texto original (puede ser null)
+     * @return tokens en orden de aparición (sin palabras vacías)
+     */
+    public static List<Token> analizar(String texto) {
+        List<Token> tokens = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return tokens;
+        }
+        int i = 0;
+        int n = texto.length();
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(texto.charAt(i))) {
+                i++;
+            }
+            int inicio = i;
+            while (i < n && Character.isLetterOrDigit(texto.charAt(i))) {
+                i++;
+            }
+            if (i > inicio) {
+                String palabra = normalizar(texto.substring(inicio, i));
+                if (!palabra.isEmpty() && !STOPWORDS.contains(palabra)) {
+                    tokens.add(new Token(stem(palabra), inicio, i));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Términos de una consulta (sin posiciones, sin repetidos)
+     */
+    public static List<String> terminos(String consulta) {
+        return analizar(consulta).stream().map(Token::termino).distinct().toList();
+    }
+
+    /**
+     * Minúsculas y sin diacríticos
+     */
+    public static String normalizar(String texto) {
+        String sinAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "");
+        return sinAcentos.toLowerCase();
+    }
+
+    /**
+     * Stemming ligero español/inglés basado en sufijos.
+     */
+    static String stem(String palabra) {
+        int n = palabra.length();
+        if (n <= 3 || Character.isDigit(palabra.charAt(0))) {
+            return palabra;
+        }
+        if (palabra.endsWith("mente") && n > 7) {
+            return palabra.substring(0, n - 5);
+        }
+        if (palabra.endsWith("ciones") && n > 7) {
+            return palabra.substring(0, n - 6) + "cion";
+        }
+        if (palabra.endsWith("ies") && n > 4) {
+            return palabra.substring(0, n - 3) + "y";
+        }
+        if (palabra.endsWith("ing") && n > 5) {
+            return palabra.substring(0, n - 3);
+        }
+        if (palabra.endsWith("ed") && n > 4) {
+            return palabra.substring(0, n - 2);
+        }
+        if (palabra.endsWith("es") && n > 4 && !esVocal(palabra.charAt(n - 3))) {
+            palabra = palabra.substring(0, n - 2);
+        } else if (palabra.endsWith("s") && !palabra.endsWith("ss")) {
+            palabra = palabra.substring(0, n - 1);
+        }
+        // Vocal final de género/número en español: "guerrero"/"guerrera" → "guerrer"
+        int m = palabra.length();
+        if (m > 4 && (palabra.charAt(m - 1) == 'o' || palabra.charAt(m - 1) == 'a')) {
+            return palabra.substring(0, m - 1);
+        }
+        return palabra;
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
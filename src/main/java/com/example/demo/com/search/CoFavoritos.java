@@ -0,0 +1,255 @@
+package com.example.demo.com.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matriz de co-ocurrencia de favoritos mantenida de forma incremental.
+ *
+ * Para cada personaje guarda cuántos usuarios lo tienen como favorito junto a cada uno
+ * de los demás ("los fans de X también tienen como favorito a Y").
+ *
+ * - Cada fila es un mapa disperso long → int con direccionamiento abierto (arrays de
+ *   primitivos, sin objetos por entrada ni boxing).
+ * - Cada fila mantiene precalculados sus N vecinos más frecuentes en un array inmutable
+ *   publicado con volatile: leer las recomendaciones es O(N) y no bloquea.
+ * - Las actualizaciones bloquean solo la fila afectada, nunca dos a la vez.
+ */
+public class CoFavoritos {
+
+    private final int n;
+    private final ConcurrentHashMap<Long, Fila> filas = new ConcurrentHashMap<>();
+
+    /**
+     * @param n número de vecinos precalculados por personaje
+     */
+    public CoFavoritos(int n) {
+        this.n = n;
+    }
+
+    /**
+     * Vecino recomendado y número de usuarios que comparten ambos favoritos
+     */
+    public record Vecino(long personajeId, int usuarios) {
+    }
+
+    /**
+     * Registra que un usuario ha añadido (o quitado) un favorito.
+     *
+     * @param personajeId favorito añadido o quitado
+     * @param otros       resto de favoritos del usuario
+     * @param agregado    true si se añadió, false si se quitó
+     */
+    public void actualizar(long personajeId, long[] otros, boolean agregado) {
+        int delta = agregado ? 1 : -1;
+        Fila fila = fila(personajeId);
+        for (long otro : otros) {
+            if (otro != personajeId) {
+                fila.sumar(otro, delta);
+                fila(otro).sumar(personajeId, delta);
+            }
+        }
+    }
+
+    /**
+     * Registra todos los pares de favoritos de un usuario (reconstrucción inicial)
+     */
+    public void agregarUsuario(long[] favoritos) {
+        for (int i = 0; i < favoritos.length; i++) {
+            Fila fila = fila(favoritos[i]);
+            for (int j = 0; j < favoritos.length; j++) {
+                if (i != j && favoritos[i] != favoritos[j]) {
+                    fila.sumar(favoritos[j], 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Los N vecinos más frecuentes de un personaje, O(N)
+     */
+    public List<Vecino> vecinos(long personajeId) {
+        Fila fila = filas.get(personajeId);
+        return fila == null ? List.of() : List.of(fila.top);
+    }
+
+    /**
+     * Número de pares (personaje, vecino) almacenados
+     */
+    public long pares() {
+        return filas.values().stream().mapToLong(f -> f.tamano).sum();
+    }
+
+    /**
+     * Memoria aproximada de las filas (arrays de claves, conteos y top-N)
+     */
+    public long bytesEstimados() {
+        long total = 0;
+        for (Fila f : filas.values()) {
+            total += 16L + f.claves.length * 8L + f.conteos.length * 4L + f.top.length * 32L;
+        }
+        return total;
+    }
+
+    public void vaciar() {
+        filas.clear();
+    }
+
+    private Fila fila(long personajeId) {
+        return filas.computeIfAbsent(personajeId, id -> new Fila());
+    }
+
+    /**
+     * Fila de la matriz: mapa abierto long → int (0 = hueco libre; los IDs son positivos)
+     */
+    private final class Fila {
+        private long[] claves = new long[8];
+        private int[] conteos = new int[8];
+        private int tamano;
+        private volatile Vecino[] top = new Vecino[0];
+
+        synchronized void sumar(long vecino, int delta) {
+            int pos = posicion(claves, vecino);
+            int valor = (claves[pos] == vecino ? conteos[pos] : 0) + delta;
+            if (valor > 0) {
+                if (claves[pos] != vecino) {
+                    claves[pos] = vecino;
+                    tamano++;
+                }
+                conteos[pos] = valor;
+                if (tamano * 4 > claves.length * 3) {
+                    redimensionar();
+                }
+            } else if (claves[pos] == vecino) {
+                eliminar(pos);
+                valor = 0;
+            }
+            actualizarTop(vecino, valor, delta);
+        }
+
+        /**
+         * Mantiene el top-N sin recorrer la fila salvo cuando un vecino del top baja
+         * hasta el último puesto y podría haberle adelantado otro que no estaba.
+         */
+        private void actualizarTop(long vecino, int valor, int delta) {
+            Vecino[] actual = top;
+            int i = 0;
+            while (i < actual.length && actual[i].personajeId() != vecino) {
+                i++;
+            }
+            boolean estaba = i < actual.length;
+            if (delta < 0) {
+                if (!estaba) {
+                    return;
+                }
+                // Fuera del top nadie supera al último: si el valor sigue por encima, basta reordenar el top
+                boolean completo = actual.length == n;
+                if (completo && valor <= actual[n - 1].usuarios()) {
+                    top = calcularTop();
+                } else if (valor == 0) {
+                    Vecino[] nuevo = new Vecino[actual.length - 1];
+                    System.arraycopy(actual, 0, nuevo, 0, i);
+                    System.arraycopy(actual, i + 1, nuevo, i, nuevo.length - i);
+                    top = nuevo;
+                } else {
+                    Vecino[] nuevo = actual.clone();
+                    nuevo[i] = new Vecino(vecino, valor);
+                    while (i < nuevo.length - 1 && mejor(nuevo[i + 1], nuevo[i])) {
+                        Vecino tmp = nuevo[i + 1];
+                        nuevo[i + 1] = nuevo[i];
+                        nuevo[i] = tmp;
+                        i++;
+                    }
+                    top = nuevo;
+                }
+                return;
+            }
+            if (!estaba && actual.length == n && valor <= actual[n - 1].usuarios()) {
+                return;
+            }
+            Vecino[] nuevo;
+            if (estaba) {
+                nuevo = actual.clone();
+            } else {
+                nuevo = Arrays.copyOf(actual, Math.min(n, actual.length + 1));
+                i = nuevo.length - 1;
+            }
+            nuevo[i] = new Vecino(vecino, valor);
+            // Subir la entrada hasta su posición (el resto ya está ordenado)
+            while (i > 0 && mejor(nuevo[i], nuevo[i - 1])) {
+                Vecino tmp = nuevo[i - 1];
+                nuevo[i - 1] = nuevo[i];
+                nuevo[i] = tmp;
+                i--;
+            }
+            top = nuevo;
+        }
+
+        private Vecino[] calcularTop() {
+            Vecino[] todos = new Vecino[tamano];
+            int k = 0;
+            for (int p = 0; p < claves.length; p++) {
+                if (claves[p] != 0) {
+                    todos[k++] = new Vecino(claves[p], conteos[p]);
+                }
+            }
+            Arrays.sort(todos, (a, b) -> mejor(a, b) ? -1 : mejor(b, a) ? 1 : 0);
+            return Arrays.copyOf(todos, Math.min(n, todos.length));
+        }
+
+        private void redimensionar() {
+            long[] viejasClaves = claves;
+            int[] viejosConteos = conteos;
+            claves = new long[viejasClaves.length * 2];
+            conteos = new int[viejasClaves.length * 2];
+            for (int p = 0; p < viejasClaves.length; p++) {
+                if (viejasClaves[p] != 0) {
+                    int nueva = posicion(claves, viejasClaves[p]);
+                    claves[nueva] = viejasClaves[p];
+                    conteos[nueva] = viejosConteos[p];
+                }
+            }
+        }
+
+        /**
+         * Borrado con desplazamiento hacia atrás (sin marcas de borrado)
+         */
+        private void eliminar(int pos) {
+            int mascara = claves.length - 1;
+            int hueco = pos;
+            int p = (pos + 1) & mascara;
+            while (claves[p] != 0) {
+                int ideal = hash(claves[p]) & mascara;
+                // ¿La entrada en p puede moverse al hueco sin quedar antes de su posición ideal?
+                if (((p - ideal) & mascara) >= ((p - hueco) & mascara)) {
+                    claves[hueco] = claves[p];
+                    conteos[hueco] = conteos[p];
+                    hueco = p;
+                }
+                p = (p + 1) & mascara;
+            }
+            claves[hueco] = 0;
+            conteos[hueco] = 0;
+            tamano--;
+        }
+    }
+
+    private static boolean mejor(Vecino a, Vecino b) {
+        return a.usuarios() > b.usuarios() || (a.usuarios() == b.usuarios() && a.personajeId() < b.personajeId());
+    }
+
+    private static int posicion(long[] claves, long clave) {
+        int mascara = claves.length - 1;
+        int p = hash(clave) & mascara;
+        while (claves[p] != 0 && claves[p] != clave) {
+            p = (p + 1) & mascara;
+        }
+        return p;
+    }
+
+    private static int hash(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
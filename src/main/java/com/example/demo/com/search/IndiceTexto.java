@@ -0,0 +1,204 @@
+package com.example.demo.com.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria con ranking BM25F.
+ *
+ * - Cada documento tiene varios campos (nombre, descripción, raza, afiliación) con un peso
+ *   distinto: una coincidencia en el nombre cuenta más que en la descripción.
+ * - Las listas de postings guardan la frecuencia del término por campo, de modo que una
+ *   consulta solo recorre los documentos que contienen alguno de sus términos.
+ * - Actualización incremental: {@link #indexar} sustituye un documento sin reconstruir el resto.
+ * - Lecturas concurrentes; las escrituras (solo en ingesta) toman el lock exclusivo.
+ */
+public class IndiceTexto {
+
+    /**
+     * Parámetros estándar de BM25
+     */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final double[] pesos;
+
+    private final Map<String, Map<Long, int[]>> postings = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final long[] longitudTotal;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param pesos peso de cada campo, en el mismo orden en que se pasan a {@link #indexar}
+     */
+    public IndiceTexto(double... pesos) {
+        this.pesos = pesos.clone();
+        this.longitudTotal = new long[pesos.length];
+    }
+
+    /**
+     * Resultado de una búsqueda
+     */
+    public record Resultado(long id, double score) {
+    }
+
+    /**
+     * Página de resultados y número total de coincidencias
+     */
+    public record Pagina(List<Resultado> resultados, long total) {
+    }
+
+    /**
+     * Añade o sustituye un documento.
+     *
+     * @param id     identificador del documento
+     * @param campos texto de cada campo (puede haber nulls)
+     */
+    public void indexar(long id, String... campos) {
+        if (campos.length != pesos.length) {
+            throw new IllegalArgumentException("Se esperaban " + pesos.length + " campos");
+        }
+        Map<String, int[]> frecuencias = new HashMap<>();
+        int[] longitudes = new int[campos.length];
+        for (int campo = 0; campo < campos.length; campo++) {
+            List<Analizador.Token> tokens = Analizador.analizar(campos[campo]);
+            longitudes[campo] = tokens.size();
+            for (Analizador.Token token : tokens) {
+                frecuencias.computeIfAbsent(token.termino(), t -> new int[pesos.length])[campo]++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+            frecuencias.forEach((termino, tf) -> postings.computeIfAbsent(termino, t -> new HashMap<>()).put(id, tf));
+            documentos.put(id, new Documento(longitudes, frecuencias.keySet()));
+            for (int campo = 0; campo < longitudes.length; campo++) {
+                longitudTotal[campo] += longitudes[campo];
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un documento del índice (si existe)
+     */
+    public void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca documentos que contengan alguno de los términos, ordenados por relevancia.
+     *
+     * @param terminos términos ya analizados (ver {@link Analizador#terminos})
+     * @param desde    posición del primer resultado
+     * @param cantidad número máximo de resultados
+     */
+    public Pagina buscar(Collection<String> terminos, int desde, int cantidad) {
+        lock.readLock().lock();
+        try {
+            int n = documentos.size();
+            if (n == 0 || terminos.isEmpty()) {
+                return new Pagina(List.of(), 0);
+            }
+            double[] longitudMedia = new double[pesos.length];
+            for (int campo = 0; campo < pesos.length; campo++) {
+                longitudMedia[campo] = Math.max(1.0, (double) longitudTotal[campo] / n);
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String termino : terminos) {
+                Map<Long, int[]> lista = postings.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - lista.size() + 0.5) / (lista.size() + 0.5));
+                lista.forEach((id, tf) -> {
+                    int[] longitudes = documentos.get(id).longitudes();
+                    // BM25F: frecuencia ponderada y normalizada por longitud de cada campo
+                    double tfPonderada = 0;
+                    for (int campo = 0; campo < tf.length; campo++) {
+                        if (tf[campo] > 0) {
+                            double norma = 1 - B + B * longitudes[campo] / longitudMedia[campo];
+                            tfPonderada += pesos[campo] * tf[campo] / norma;
+                        }
+                    }
+                    scores.merge(id, idf * tfPonderada / (K1 + tfPonderada), Double::sum);
+                });
+            }
+            return new Pagina(mejores(scores, desde, cantidad), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de documentos indexados
+     */
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void eliminarSinLock(long id) {
+        Documento anterior = documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String termino : anterior.terminos()) {
+            Map<Long, int[]> lista = postings.get(termino);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+        for (int campo = 0; campo < longitudTotal.length; campo++) {
+            longitudTotal[campo] -= anterior.longitudes()[campo];
+        }
+    }
+
+    /**
+     * Top (desde + cantidad) con un heap acotado, sin ordenar todas las coincidencias
+     */
+    private static List<Resultado> mejores(Map<Long, Double> scores, int desde, int cantidad) {
+        int limite = desde + cantidad;
+        if (limite <= 0 || desde >= scores.size()) {
+            return List.of();
+        }
+        Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::score)
+                .thenComparing(Resultado::id, Comparator.reverseOrder());
+        PriorityQueue<Resultado> heap = new PriorityQueue<>(limite + 1, orden);
+        scores.forEach((id, score) -> {
+            heap.add(new Resultado(id, score));
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        });
+        List<Resultado> ordenados = new ArrayList<>(heap);
+        ordenados.sort(orden.reversed());
+        return ordenados.subList(Math.min(desde, ordenados.size()), ordenados.size());
+    }
+
+    private record Documento(int[] longitudes, Collection<String> terminos) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.com.search;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Genera fragmentos de texto con los términos buscados resaltados con {@code <mark>}.
+ *
+ * El texto se escapa como HTML, así que el fragmento se puede insertar directamente en una página.
+ */
+public final class Resaltador {
+
+    private Resaltador() {
+    }
+
+    /**
+     * @param texto    texto original
+     * @param terminos términos analizados de la consulta
+     * @param longitud longitud aproximada del fragmento
+     * @return fragmento alrededor de la primera coincidencia (o el inicio del texto si no hay ninguna)
+     */
+    public static String fragmento(String texto, Collection<String> terminos, int longitud) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        List<Analizador.Token> coincidencias = Analizador.analizar(texto).stream()
+                .filter(t -> terminos.contains(t.termino()))
+                .toList();
+
+        int inicio = coincidencias.isEmpty() ? 0 : Math.max(0, coincidencias.get(0).inicio() - longitud / 4);
+        int fin = Math.min(texto.length(), inicio + longitud);
+        // Ajustar a límites de palabra para no cortar en medio
+        while (inicio > 0 && Character.isLetterOrDigit(texto.charAt(inicio - 1))) {
+            inicio--;
+        }
+        while (fin < texto.length() && Character.isLetterOrDigit(texto.charAt(fin))) {
+            fin++;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (inicio > 0) {
+            sb.append("…");
+        }
+        int cursor = inicio;
+        for (Analizador.Token t : coincidencias) {
+            if (t.inicio() < inicio || t.fin() > fin) {
+                continue;
+            }
+            sb.append(HtmlUtils.htmlEscape(texto.substring(cursor, t.inicio())))
+              .append("<mark>")
+              .append(HtmlUtils.htmlEscape(texto.substring(t.inicio(), t.fin())))
+              .append("</mark>");
+            cursor = t.fin();
+        }
+        sb.append(HtmlUtils.htmlEscape(texto.substring(cursor, fin)));
+        if (fin < texto.length()) {
+            sb.append("…");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.demo.com.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie inmutable y compacto para autocompletar nombres con tolerancia a una errata.
+ *
+ * Representación:
+ * - Los nodos se guardan "aplanados" en arrays paralelos (letra, rango de hijos, top-K) en
+ *   orden BFS, de modo que los hijos de un nodo son contiguos y están ordenados por letra:
+ *   sin objetos por nodo y con búsqueda binaria entre hermanos.
+ * - Cada nodo guarda precalculados los K mejores nombres de su subárbol por popularidad, así
+ *   que responder a un prefijo cuesta O(longitud del prefijo + K).
+ * - Se insertan el nombre completo normalizado y el sufijo que empieza en cada palabra,
+ *   para que "gok" encuentre "Son Goku".
+ *
+ * Tolerancia: con prefijos de 3 o más caracteres se aceptan a distancia de edición 1
+ * (sustitución, inserción, borrado o transposición de dos letras contiguas). Primero se
+ * devuelven las coincidencias exactas y después las aproximadas, cada grupo por popularidad.
+ *
+ * Es inmutable: para reflejar cambios se construye uno nuevo y se sustituye la referencia.
+ */
+public final class TrieSugerencias {
+
+    private static final int MIN_LONGITUD_APROXIMADA = 3;
+
+    /**
+     * Nombre indexable
+     */
+    public record Entrada(long id, String nombre, long popularidad) {
+    }
+
+    // Entradas ordenadas por (popularidad desc, nombre): el índice de una entrada es su ranking
+    private final Entrada[] entradas;
+
+    // Nodos aplanados (el 0 es la raíz)
+    private final char[] letra;
+    private final int[] hijoInicio;
+    private final int[] hijoFin;
+    private final int[] topInicio;
+    private final int[] top;
+
+    private final int k;
+
+    private TrieSugerencias(Entrada[] entradas, char[] letra, int[] hijoInicio, int[] hijoFin,
+                            int[] topInicio, int[] top, int k) {
+        this.entradas = entradas;
+        this.letra = letra;
+        this.hijoInicio = hijoInicio;
+        this.hijoFin = hijoFin;
+        this.topInicio = topInicio;
+        this.top = top;
+        this.k = k;
+    }
+
+    /**
+     * Construye el trie.
+     *
+     * @param entradas nombres a indexar
+     * @param k        número máximo de sugerencias precalculadas por nodo
+     */
+    public static TrieSugerencias construir(List<Entrada> entradas, int k) {
+        Entrada[] ordenadas = entradas.stream()
+                .sorted(Comparator.comparingLong(Entrada::popularidad).reversed()
+                        .thenComparing(Entrada::nombre, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toArray(Entrada[]::new);
+
+        // 1️⃣ Trie temporal con nodos objeto
+        NodoTmp raiz = new NodoTmp('\0');
+        for (int ranking = 0; ranking < ordenadas.length; ranking++) {
+            String clave = normalizar(ordenadas[ranking].nombre());
+            for (int inicio = 0; inicio < clave.length(); inicio++) {
+                if (inicio == 0 || clave.charAt(inicio - 1) == ' ') {
+                    NodoTmp nodo = raiz;
+                    for (int i = inicio; i < clave.length(); i++) {
+                        nodo = nodo.hijo(clave.charAt(i));
+                    }
+                    nodo.terminal(ranking);
+                }
+            }
+        }
+
+        // 2️⃣ Top-K de cada subárbol (post-orden)
+        calcularTop(raiz, k);
+
+        // 3️⃣ Aplanado en orden BFS
+        List<NodoTmp> orden = new ArrayList<>();
+        ArrayDeque<NodoTmp> cola = new ArrayDeque<>();
+        cola.add(raiz);
+        while (!cola.isEmpty()) {
+            NodoTmp nodo = cola.poll();
+            orden.add(nodo);
+            for (int h = 0; h < nodo.numHijos; h++) {
+                cola.add(nodo.hijos[h]);
+            }
+        }
+        int n = orden.size();
+        char[] letra = new char[n];
+        int[] hijoInicio = new int[n];
+        int[] hijoFin = new int[n];
+        int[] topInicio = new int[n + 1];
+        int totalTop = orden.stream().mapToInt(nodo -> nodo.top.length).sum();
+        int[] top = new int[totalTop];
+
+        int siguienteHijo = 1;
+        int cursorTop = 0;
+        for (int i = 0; i < n; i++) {
+            NodoTmp nodo = orden.get(i);
+            letra[i] = nodo.letra;
+            hijoInicio[i] = siguienteHijo;
+            siguienteHijo += nodo.numHijos;
+            hijoFin[i] = siguienteHijo;
+            topInicio[i] = cursorTop;
+            System.arraycopy(nodo.top, 0, top, cursorTop, nodo.top.length);
+            cursorTop += nodo.top.length;
+        }
+        topInicio[n] = cursorTop;
+        return new TrieSugerencias(ordenadas, letra, hijoInicio, hijoFin, topInicio, top, k);
+    }
+
+    /**
+     * Sugerencias para un prefijo.
+     *
+     * @param prefijo texto escrito por el usuario
+     * @param limite  número máximo de sugerencias (como mucho el K de construcción)
+     * @return entradas ordenadas: primero coincidencias exactas, luego aproximadas; por popularidad
+     */
+    public List<Entrada> sugerir(String prefijo, int limite) {
+        String q = normalizar(prefijo);
+        if (q.isEmpty() || entradas.length == 0) {
+            return List.of();
+        }
+        // nodo -> menor número de ediciones con que se alcanza
+        Map<Integer, Integer> alcanzados = new HashMap<>();
+        visitar(q, 0, 0, 0, q.length() >= MIN_LONGITUD_APROXIMADA ? 1 : 0, alcanzados);
+
+        // Rankings alcanzados sin ediciones y con una edición
+        int[][] porDistancia = {new int[0], new int[0]};
+        alcanzados.forEach((nodo, distancia) -> {
+            int[] actual = porDistancia[distancia];
+            int desde = topInicio[nodo];
+            int cuantos = topInicio[nodo + 1] - desde;
+            int[] unidos = Arrays.copyOf(actual, actual.length + cuantos);
+            System.arraycopy(top, desde, unidos, actual.length, cuantos);
+            porDistancia[distancia] = unidos;
+        });
+
+        int maximo = Math.min(limite, k);
+        List<Entrada> resultado = new ArrayList<>(maximo);
+        int[] exactos = porDistancia[0];
+        Arrays.sort(exactos);
+        for (int i = 0; i < exactos.length && resultado.size() < maximo; i++) {
+            if (i == 0 || exactos[i] != exactos[i - 1]) {
+                resultado.add(entradas[exactos[i]]);
+            }
+        }
+        int[] aproximados = porDistancia[1];
+        Arrays.sort(aproximados);
+        for (int i = 0; i < aproximados.length && resultado.size() < maximo; i++) {
+            boolean repetido = (i > 0 && aproximados[i] == aproximados[i - 1])
+                    || Arrays.binarySearch(exactos, aproximados[i]) >= 0;
+            if (!repetido) {
+                resultado.add(entradas[aproximados[i]]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Número de nodos (para métricas de memoria)
+     */
+    public int nodos() {
+        return letra.length;
+    }
+
+    /**
+     * Recorrido del trie consumiendo el prefijo con, como mucho, {@code maxEdiciones} ediciones.
+     */
+    private void visitar(String q, int nodo, int pos, int ediciones, int maxEdiciones, Map<Integer, Integer> alcanzados) {
+        if (pos == q.length()) {
+            alcanzados.merge(nodo, ediciones, Math::min);
+            return;
+        }
+        char c = q.charAt(pos);
+        int exacto = hijo(nodo, c);
+        if (exacto >= 0) {
+            visitar(q, exacto, pos + 1, ediciones, maxEdiciones, alcanzados);
+        }
+        if (ediciones >= maxEdiciones) {
+            return;
+        }
+        // Letra sobrante en el prefijo
+        visitar(q, nodo, pos + 1, ediciones + 1, maxEdiciones, alcanzados);
+        for (int h = hijoInicio[nodo]; h < hijoFin[nodo]; h++) {
+            // Letra falta en el prefijo
+            visitar(q, h, pos, ediciones + 1, maxEdiciones, alcanzados);
+            // Letra equivocada
+            if (letra[h] != c) {
+                visitar(q, h, pos + 1, ediciones + 1, maxEdiciones, alcanzados);
+            }
+        }
+        // Dos letras contiguas intercambiadas
+        if (pos + 1 < q.length()) {
+            int primero = hijo(nodo, q.charAt(pos + 1));
+            int segundo = primero >= 0 ? hijo(primero, c) : -1;
+            if (segundo >= 0) {
+                visitar(q, segundo, pos + 2, ediciones + 1, maxEdiciones, alcanzados);
+            }
+        }
+    }
+
+    /**
+     * Búsqueda binaria del hijo con la letra indicada (-1 si no existe)
+     */
+    private int hijo(int nodo, char c) {
+        int lo = hijoInicio[nodo];
+        int hi = hijoFin[nodo] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (letra[mid] < c) {
+                lo = mid + 1;
+            } else if (letra[mid] > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Minúsculas, sin acentos y con un único espacio como separador
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return Analizador.normalizar(texto).replaceAll("[^\\p{Alnum}]+", " ").trim();
+    }
+
+    private static int[] calcularTop(NodoTmp nodo, int k) {
+        int total = nodo.terminales.size();
+        int[][] topsHijos = new int[nodo.numHijos][];
+        for (int h = 0; h < nodo.numHijos; h++) {
+            topsHijos[h] = calcularTop(nodo.hijos[h], k);
+            total += topsHijos[h].length;
+        }
+        int[] candidatos = new int[total];
+        int n = 0;
+        for (int ranking : nodo.terminales) {
+            candidatos[n++] = ranking;
+        }
+        for (int[] topHijo : topsHijos) {
+            System.arraycopy(topHijo, 0, candidatos, n, topHijo.length);
+            n += topHijo.length;
+        }
+        // Menor índice = mejor ranking; se eliminan repetidos (mismo nombre por varias palabras)
+        Arrays.sort(candidatos);
+        int[] mejores = new int[Math.min(k, candidatos.length)];
+        int m = 0;
+        for (int i = 0; i < candidatos.length && m < mejores.length; i++) {
+            if (i == 0 || candidatos[i] != candidatos[i - 1]) {
+                mejores[m++] = candidatos[i];
+            }
+        }
+        nodo.top = m == mejores.length ? mejores : Arrays.copyOf(mejores, m);
+        // La lista de terminales ya no hace falta
+        nodo.terminales = List.of();
+        return nodo.top;
+    }
+
+    /**
+     * Nodo del trie temporal de construcción: hijos en arrays ordenados por letra
+     */
+    private static final class NodoTmp {
+        private static final char[] SIN_LETRAS = new char[0];
+        private static final NodoTmp[] SIN_HIJOS = new NodoTmp[0];
+
+        private final char letra;
+        private char[] letras = SIN_LETRAS;
+        private NodoTmp[] hijos = SIN_HIJOS;
+        private int numHijos;
+        private List<Integer> terminales = List.of();
+        private int[] top;
+
+        private NodoTmp(char letra) {
+            this.letra = letra;
+        }
+
+        private NodoTmp hijo(char c) {
+            int pos = Arrays.binarySearch(letras, 0, numHijos, c);
+            if (pos >= 0) {
+                return hijos[pos];
+            }
+            int ins = -pos - 1;
+            if (numHijos == letras.length) {
+                int capacidad = Math.max(2, numHijos * 2);
+                letras = Arrays.copyOf(letras, capacidad);
+                hijos = Arrays.copyOf(hijos, capacidad);
+            }
+            System.arraycopy(letras, ins, letras, ins + 1, numHijos - ins);
+            System.arraycopy(hijos, ins, hijos, ins + 1, numHijos - ins);
+            letras[ins] = c;
+            hijos[ins] = new NodoTmp(c);
+            numHijos++;
+            return hijos[ins];
+        }
+
+        private void terminal(int ranking) {
+            if (terminales.isEmpty()) {
+                terminales = new ArrayList<>(1);
+            }
+            terminales.add(ranking);
+        }
+    }
+}
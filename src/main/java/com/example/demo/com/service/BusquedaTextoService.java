@@ -0,0 +1,109 @@
+package com.example.demo.com.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.com.dto.Pagina;
+import com.example.demo.com.dto.ResultadoBusqueda;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+import com.example.demo.com.search.Analizador;
+import com.example.demo.com.search.IndiceTexto;
+import com.example.demo.com.search.Resaltador;
+
+/**
+ * Búsqueda de texto completo sobre el catálogo de personajes.
+ *
+ * Buenas prácticas aplicadas:
+ * - Índice invertido en memoria (IndiceTexto): la latencia depende del número de documentos
+ *   que contienen los términos, no del tamaño del catálogo.
+ * - Se construye al arrancar y se actualiza de forma incremental tras cada sincronización.
+ * - Solo se cargan de la BD (caché de segundo nivel) los personajes de la página pedida.
+ */
+@Service
+public class BusquedaTextoService {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaTextoService.class);
+
+    /**
+     * Pesos de los campos: nombre, descripción, raza, afiliación
+     */
+    private static final double[] PESOS = {3.0, 1.0, 1.5, 1.5};
+
+    private static final int LONGITUD_FRAGMENTO = 160;
+
+    private final PersonajeRepository personajeRepository;
+    private final SnapshotCatalogoService snapshotCatalogo;
+    private final IndiceTexto indice = new IndiceTexto(PESOS);
+
+    public BusquedaTextoService(PersonajeRepository personajeRepository, SnapshotCatalogoService snapshotCatalogo) {
+        this.personajeRepository = personajeRepository;
+        this.snapshotCatalogo = snapshotCatalogo;
+    }
+
+    /**
+     * Construcción inicial del índice con el catálogo (snapshot si lo hay, si no la base de datos).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndice() {
+        long inicio = System.nanoTime();
+        snapshotCatalogo.catalogo().forEach(this::indexar);
+        log.info("Índice de texto construido: {} personajes en {} ms",
+                indice.tamano(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Actualización incremental tras una sincronización con la API.
+     */
+    @EventListener
+    public void onCatalogoActualizado(CatalogoActualizadoEvent event) {
+        personajeRepository.findAllById(event.personajeIds()).forEach(this::indexar);
+    }
+
+    /**
+     * Busca personajes por texto libre.
+     *
+     * @param consulta texto a buscar
+     * @param pagina   número de página (desde 0)
+     * @param tamano   resultados por página
+     * @return página de resultados ordenados por relevancia
+     * @throws IllegalArgumentException si el desplazamiento de la página no cabe en un int
+     */
+    public Pagina<ResultadoBusqueda> buscar(String consulta, int pagina, int tamano) {
+        int desde;
+        try {
+            desde = Math.multiplyExact(pagina, tamano);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Página fuera de rango: " + pagina);
+        }
+        List<String> terminos = Analizador.terminos(consulta);
+        IndiceTexto.Pagina resultado = indice.buscar(terminos, desde, tamano);
+
+        List<Long> ids = resultado.resultados().stream().map(IndiceTexto.Resultado::id).toList();
+        Map<Long, Personaje> personajes = personajeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Personaje::getId, Function.identity()));
+
+        List<ResultadoBusqueda> contenido = resultado.resultados().stream()
+                .filter(r -> personajes.containsKey(r.id()))
+                .map(r -> {
+                    Personaje p = personajes.get(r.id());
+                    return new ResultadoBusqueda(p.getId(), p.getName(), p.getRace(), p.getImage(), r.score(),
+                            Resaltador.fragmento(p.getDescription(), terminos, LONGITUD_FRAGMENTO));
+                })
+                .toList();
+        return new Pagina<>(contenido, pagina, tamano, resultado.total());
+    }
+
+    private void indexar(Personaje p) {
+        indice.indexar(p.getId(), p.getName(), p.getDescription(), p.getRace(), p.getAffiliation());
+    }
+}
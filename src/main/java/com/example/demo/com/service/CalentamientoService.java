@@ -0,0 +1,217 @@
+package com.example.demo.com.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.com.dto.PersonajeResumen;
+import com.example.demo.com.model.Personaje;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Calentamiento de los caminos más usados antes de recibir tráfico real.
+ *
+ * Buenas prácticas aplicadas:
+ * - Se ejecuta cuando Spring Boot pasa a ACCEPTING_TRAFFIC (después de construir índices
+ *   y sugerencias) y, mientras dura, el grupo de salud "readiness" responde
+ *   OUT_OF_SERVICE (ver CalentamientoHealthIndicator): el balanceador no envía usuarios.
+ * - Pasos: llenar el pool de conexiones, cargar el catálogo (y la caché de segundo nivel),
+ *   renderizar personajes.html por HTTP contra el propio servidor (filtros, seguridad,
+ *   Thymeleaf) y N llamadas sintéticas a búsqueda, sugerencias y serialización JSON.
+ * - Un fallo en un paso se registra y no bloquea el arranque: readiness acaba en UP igual.
+ */
+@Service
+public class CalentamientoService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalentamientoService.class);
+
+    private final HikariDataSource primaryDataSource;
+    private final SnapshotCatalogoService snapshotCatalogo;
+    private final PersonajeService personajeService;
+    private final BusquedaTextoService busquedaTextoService;
+    private final SugerenciasService sugerenciasService;
+    private final ObjectMapper objectMapper;
+    private final boolean activado;
+    private final int iteraciones;
+    private final int paginas;
+
+    private volatile boolean completado;
+    private volatile Map<String, Long> duraciones = Map.of();
+    private volatile List<String> fallidos = List.of();
+
+    public CalentamientoService(HikariDataSource primaryDataSource, SnapshotCatalogoService snapshotCatalogo,
+                                PersonajeService personajeService, BusquedaTextoService busquedaTextoService,
+                                SugerenciasService sugerenciasService, ObjectMapper objectMapper,
+                                @Value("${app.calentamiento.enabled:true}") boolean activado,
+                                @Value("${app.calentamiento.iteraciones:500}") int iteraciones,
+                                @Value("${app.calentamiento.paginas:10}") int paginas) {
+        this.primaryDataSource = primaryDataSource;
+        this.snapshotCatalogo = snapshotCatalogo;
+        this.personajeService = personajeService;
+        this.busquedaTextoService = busquedaTextoService;
+        this.sugerenciasService = sugerenciasService;
+        this.objectMapper = objectMapper;
+        this.activado = activado;
+        this.iteraciones = iteraciones;
+        this.paginas = paginas;
+        this.completado = !activado;
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !completado) {
+            int puerto = event.getSource() instanceof WebServerApplicationContext web && web.getWebServer() != null
+                    ? web.getWebServer().getPort() : -1;
+            calentar(puerto);
+        }
+    }
+
+    /**
+     * Ejecuta todos los pasos y marca el calentamiento como completado
+     *
+     * @param puerto puerto HTTP local, o -1 si no hay servidor web
+     */
+    public void calentar(int puerto) {
+        long inicio = System.nanoTime();
+        Map<String, Long> tiempos = new LinkedHashMap<>();
+        List<String> errores = new ArrayList<>();
+        paso(tiempos, errores, "pool", this::llenarPool);
+        List<Personaje> catalogo = new ArrayList<>();
+        paso(tiempos, errores, "catalogo", () -> catalogo.addAll(cargarCatalogo()));
+        if (puerto > 0 && !catalogo.isEmpty()) {
+            paso(tiempos, errores, "paginas", () -> renderizarPaginas(puerto));
+        }
+        if (!catalogo.isEmpty()) {
+            paso(tiempos, errores, "sinteticas", () -> llamadasSinteticas(catalogo));
+        }
+        tiempos.put("total", (System.nanoTime() - inicio) / 1_000_000);
+        duraciones = Map.copyOf(tiempos);
+        fallidos = List.copyOf(errores);
+        completado = true;
+        log.info("Calentamiento completado en {} ms: {}", tiempos.get("total"), tiempos);
+    }
+
+    public boolean completado() {
+        return completado;
+    }
+
+    public boolean activado() {
+        return activado;
+    }
+
+    /**
+     * Milisegundos por paso del último calentamiento
+     */
+    public Map<String, Long> duraciones() {
+        return duraciones;
+    }
+
+    /**
+     * Pasos del último calentamiento que terminaron con error (vacío si todo fue bien)
+     */
+    public List<String> pasosFallidos() {
+        return fallidos;
+    }
+
+    private void llenarPool() throws Exception {
+        int n = primaryDataSource.getMaximumPoolSize();
+        List<Connection> conexiones = new ArrayList<>(n);
+        try {
+            for (int i = 0; i < n; i++) {
+                Connection conexion = primaryDataSource.getConnection();
+                conexiones.add(conexion);
+                conexion.isValid(1);
+            }
+        } finally {
+            for (Connection conexion : conexiones) {
+                conexion.close();
+            }
+        }
+    }
+
+    /**
+     * Catálogo completo (snapshot o BD, nunca la API) y caché de segundo nivel de los personajes
+     */
+    private List<Personaje> cargarCatalogo() {
+        List<Personaje> catalogo = snapshotCatalogo.catalogo();
+        catalogo.forEach(p -> personajeService.obtenerPorId(p.getId()));
+        return catalogo;
+    }
+
+    /**
+     * /login una sola vez (su límite de peticiones es de pocas por segundo y se comparte con los
+     * usuarios que entren desde localhost) y personajes.html tantas veces como {@code paginas}
+     */
+    private void renderizarPaginas(int puerto) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        renderizar(cliente, puerto, "/login");
+        for (int i = 0; i < paginas; i++) {
+            renderizar(cliente, puerto, "/vista/personajesweb");
+        }
+    }
+
+    private static void renderizar(HttpClient cliente, int puerto, String ruta) throws Exception {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException(ruta + " respondió " + respuesta.statusCode());
+        }
+    }
+
+    /**
+     * Búsqueda de texto, sugerencias, búsqueda por nombre y serialización JSON con
+     * nombres reales del catálogo (para que el JIT compile los mismos caminos que el tráfico).
+     * Se serializan los mismos DTO que devuelven los endpoints, nunca entidades: fuera de la
+     * transacción sus colecciones lazy no se pueden leer.
+     */
+    private void llamadasSinteticas(List<Personaje> catalogo) throws Exception {
+        for (int i = 0; i < iteraciones; i++) {
+            Personaje p = catalogo.get(i % catalogo.size());
+            String nombre = p.getName() != null ? p.getName() : "goku";
+            String prefijo = nombre.substring(0, Math.min(3, nombre.length()));
+            objectMapper.writeValueAsBytes(busquedaTextoService.buscar(nombre, 0, 10));
+            objectMapper.writeValueAsBytes(sugerenciasService.sugerir(prefijo, 10));
+            objectMapper.writeValueAsBytes(PersonajeResumen.de(p));
+            if (i % 10 == 0) {
+                objectMapper.writeValueAsBytes(personajeService.buscarPorNombre(prefijo));
+                objectMapper.writeValueAsBytes(personajeService.obtenerDetalle(p.getId()).orElseThrow());
+                objectMapper.writeValueAsBytes(personajeService.obtenerResumenes());
+            }
+        }
+    }
+
+    private void paso(Map<String, Long> tiempos, List<String> errores, String nombre, Paso paso) {
+        long inicio = System.nanoTime();
+        try {
+            paso.ejecutar();
+        } catch (Exception e) {
+            errores.add(nombre);
+            log.warn("Paso de calentamiento '{}' fallido: {}", nombre, e.toString());
+        }
+        tiempos.put(nombre, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface Paso {
+        void ejecutar() throws Exception;
+    }
+}
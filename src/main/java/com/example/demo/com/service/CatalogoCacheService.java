@@ -0,0 +1,71 @@
+package com.example.demo.com.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Gestión de la caché de segundo nivel del catálogo de personajes.
+ *
+ * - Invalida las regiones "personaje" y "personaje-busquedas" tras cada sincronización
+ *   con la API (evento CatalogoActualizadoEvent).
+ * - Expone las estadísticas de Hibernate de esas regiones.
+ */
+@Service
+public class CatalogoCacheService {
+
+    private final SessionFactory sessionFactory;
+
+    public CatalogoCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Vacía las regiones de caché del catálogo.
+     */
+    @EventListener(CatalogoActualizadoEvent.class)
+    public void invalidar() {
+        sessionFactory.getCache().evictEntityData(Personaje.class);
+        sessionFactory.getCache().evictQueryRegion(PersonajeRepository.CACHE_BUSQUEDAS);
+    }
+
+    /**
+     * Estadísticas de aciertos/fallos de la caché del catálogo.
+     *
+     * @return mapa región → métricas
+     */
+    public Map<String, Object> estadisticas() {
+        Statistics stats = sessionFactory.getStatistics();
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("personaje", region(stats.getDomainDataRegionStatistics("personaje")));
+        resultado.put(PersonajeRepository.CACHE_BUSQUEDAS,
+                region(stats.getQueryRegionStatistics(PersonajeRepository.CACHE_BUSQUEDAS)));
+        resultado.put("consultas", Map.of(
+                "hits", stats.getQueryCacheHitCount(),
+                "misses", stats.getQueryCacheMissCount(),
+                "puts", stats.getQueryCachePutCount()));
+        return resultado;
+    }
+
+    private static Map<String, Object> region(CacheRegionStatistics region) {
+        if (region == null) {
+            return Map.of();
+        }
+        return Map.of(
+                "hits", region.getHitCount(),
+                "misses", region.getMissCount(),
+                "puts", region.getPutCount(),
+                "elementos", region.getElementCountInMemory());
+    }
+}
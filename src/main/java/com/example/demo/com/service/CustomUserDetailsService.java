@@ -4,6 +4,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.com.model.Usuario;
 import com.example.demo.com.repository.UsuarioRepository;
@@ -39,6 +40,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @throws UsernameNotFoundException si no se encuentra el usuario
      */
     @Override
+    @Transactional // en la principal: un usuario recién registrado debe poder entrar aunque la réplica vaya retrasada
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Buscar usuario en la base de datos
         Usuario usuario = usuarioRepository.findByUsername(username)
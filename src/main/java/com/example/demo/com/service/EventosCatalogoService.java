@@ -0,0 +1,304 @@
+package com.example.demo.com.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.com.dto.PersonajeResumen;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.event.PopularidadCambiadaEvent;
+import com.example.demo.com.repository.PersonajeRepository;
+
+/**
+ * Stream de Server-Sent Events con los cambios del catálogo y de los contadores de favoritos,
+ * para que los clientes no tengan que sondear /personajes.
+ *
+ * Buenas prácticas aplicadas:
+ * - 💍 Los eventos se guardan una sola vez en un anillo de tamaño fijo compartido; cada suscriptor
+ *   solo guarda hasta qué evento ha enviado (un cursor), no una cola propia.
+ * - ↩️ Reanudación con {@code Last-Event-ID}: si el evento sigue en el anillo se reenvía lo que falta;
+ *   si no (cliente demasiado atrasado o nodo reiniciado) se envía un evento "reinicio" para que
+ *   el cliente recargue /personajes.
+ * - 🧵 Difusión sin bloqueos: publicar solo escribe en el anillo y avisa a los suscriptores. Cada uno
+ *   se drena en un hilo virtual que solo existe mientras tiene algo que enviar, así que miles de
+ *   suscriptores inactivos no ocupan hilos (la petición es asíncrona) y un cliente lento solo
+ *   se retrasa a sí mismo.
+ * - 💓 Un comentario periódico mantiene viva la conexión en proxies y detecta clientes caídos.
+ *
+ * Los eventos de otros nodos (origenRemoto) también se difunden: cada nodo sirve a sus clientes.
+ */
+@Service
+public class EventosCatalogoService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventosCatalogoService.class);
+
+    public static final String CATALOGO = "catalogo";
+    public static final String POPULARIDAD = "popularidad";
+    public static final String REINICIO = "reinicio";
+
+    /**
+     * Evento ya publicado: número de secuencia, nombre SSE y datos (se serializan a JSON)
+     */
+    record Evento(long secuencia, String tipo, Object datos) {
+    }
+
+    /**
+     * Destino de los eventos de un suscriptor (un SseEmitter; otra implementación en los tests)
+     */
+    interface Canal {
+        void enviar(String id, String tipo, Object datos) throws IOException;
+
+        void latido() throws IOException;
+
+        void cerrar();
+    }
+
+    static final class Suscriptor {
+        private final Canal canal;
+        private final AtomicBoolean drenando = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean reinicio;
+        private volatile boolean latido;
+
+        private Suscriptor(Canal canal, long cursor, boolean reinicio) {
+            this.canal = canal;
+            this.cursor = cursor;
+            this.reinicio = reinicio;
+        }
+    }
+
+    private final PersonajeRepository personajeRepository;
+    private final Duration timeout;
+    private final int maxSuscriptores;
+
+    /**
+     * Identifica este arranque en los IDs de evento: un Last-Event-ID de otro arranque no se reanuda
+     */
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicReferenceArray<Evento> anillo;
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Secuencia del último evento publicado; 0 si aún no hay ninguno
+     */
+    private volatile long ultimaSecuencia;
+
+    public EventosCatalogoService(PersonajeRepository personajeRepository,
+                                  @Value("${app.sse.buffer:1024}") int capacidad,
+                                  @Value("${app.sse.timeout:PT30M}") Duration timeout,
+                                  @Value("${app.sse.max-suscriptores:10000}") int maxSuscriptores) {
+        this.personajeRepository = personajeRepository;
+        this.anillo = new AtomicReferenceArray<>(Math.max(1, capacidad));
+        this.timeout = timeout;
+        this.maxSuscriptores = maxSuscriptores;
+    }
+
+    /**
+     * Nuevo suscriptor del stream.
+     *
+     * @param ultimoId Last-Event-ID enviado por el cliente al reconectar (null en la primera conexión)
+     * @return el emisor SSE que devuelve el controlador
+     * @throws IllegalStateException si se ha alcanzado el máximo de suscriptores
+     */
+    public SseEmitter suscribir(String ultimoId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Suscriptor suscriptor = suscribir(new Canal() {
+            @Override
+            public void enviar(String id, String tipo, Object datos) throws IOException {
+                emitter.send(SseEmitter.event().id(id).name(tipo).data(datos, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void latido() throws IOException {
+                emitter.send(SseEmitter.event().comment("latido"));
+            }
+
+            @Override
+            public void cerrar() {
+                emitter.complete();
+            }
+        }, ultimoId);
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(e -> suscriptores.remove(suscriptor));
+        return emitter;
+    }
+
+    Suscriptor suscribir(Canal canal, String ultimoId) {
+        if (suscriptores.size() >= maxSuscriptores) {
+            throw new IllegalStateException("Máximo de suscriptores SSE alcanzado (" + maxSuscriptores + ")");
+        }
+        long ultima = ultimaSecuencia;
+        Long desde = reanudable(ultimoId, ultima);
+        Suscriptor suscriptor = new Suscriptor(canal, desde != null ? desde : ultima,
+                ultimoId != null && desde == null);
+        suscriptores.add(suscriptor);
+        senalar(suscriptor);
+        return suscriptor;
+    }
+
+    /**
+     * Personajes nuevos o actualizados, como resúmenes (lo mismo que devuelve /personajes)
+     */
+    @EventListener
+    public void onCatalogoActualizado(CatalogoActualizadoEvent event) {
+        List<PersonajeResumen> cambios = personajeRepository.findAllById(event.personajeIds()).stream()
+                .map(PersonajeResumen::de)
+                .sorted(Comparator.comparing(PersonajeResumen::id))
+                .toList();
+        if (!cambios.isEmpty()) {
+            publicar(CATALOGO, cambios);
+        }
+    }
+
+    @EventListener
+    public void onPopularidadCambiada(PopularidadCambiadaEvent event) {
+        publicar(POPULARIDAD, event);
+    }
+
+    /**
+     * Comentario periódico a todos los suscriptores
+     */
+    @Scheduled(fixedDelayString = "${app.sse.latido:PT30S}")
+    public void latir() {
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.latido = true;
+            senalar(suscriptor);
+        }
+    }
+
+    public int suscriptores() {
+        return suscriptores.size();
+    }
+
+    /**
+     * Cierra los streams al parar: antes de que el apagado ordenado del servidor web se quede
+     * esperando a que terminen (nunca lo harían solas) y sin esperar al destroy de los beans.
+     * Los clientes reconectan a otro nodo con su Last-Event-ID.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void cerrar() {
+        suscriptores.forEach(s -> s.canal.cerrar());
+        suscriptores.clear();
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Añade el evento al anillo y avisa a los suscriptores; no envía nada en este hilo.
+     */
+    void publicar(String tipo, Object datos) {
+        synchronized (anillo) {
+            long secuencia = ultimaSecuencia + 1;
+            anillo.set(posicion(secuencia), new Evento(secuencia, tipo, datos));
+            ultimaSecuencia = secuencia;
+        }
+        for (Suscriptor suscriptor : suscriptores) {
+            senalar(suscriptor);
+        }
+    }
+
+    /**
+     * Lanza el drenado del suscriptor si no hay uno en marcha (como mucho uno a la vez)
+     */
+    private void senalar(Suscriptor suscriptor) {
+        if (suscriptor.drenando.compareAndSet(false, true)) {
+            ejecutor.execute(() -> drenar(suscriptor));
+        }
+    }
+
+    /**
+     * Envía al suscriptor todo lo pendiente. Al terminar vuelve a comprobar si se ha publicado algo
+     * mientras tanto, para no perder avisos que llegaron con el drenado en marcha.
+     */
+    private void drenar(Suscriptor suscriptor) {
+        do {
+            try {
+                enviarPendientes(suscriptor);
+            } catch (IOException | RuntimeException e) {
+                // Cliente desconectado: el emisor ya no sirve
+                log.debug("Suscriptor SSE eliminado: {}", e.toString());
+                suscriptores.remove(suscriptor);
+                suscriptor.canal.cerrar();
+                return;
+            } finally {
+                suscriptor.drenando.set(false);
+            }
+        } while (pendiente(suscriptor) && suscriptor.drenando.compareAndSet(false, true));
+    }
+
+    private void enviarPendientes(Suscriptor suscriptor) throws IOException {
+        long hasta = ultimaSecuencia;
+        while (suscriptor.reinicio || suscriptor.cursor < hasta) {
+            if (suscriptor.reinicio) {
+                suscriptor.reinicio = false;
+                suscriptor.canal.enviar(id(suscriptor.cursor), REINICIO, Map.of());
+                continue;
+            }
+            long siguiente = suscriptor.cursor + 1;
+            Evento evento = anillo.get(posicion(siguiente));
+            if (evento == null || evento.secuencia() != siguiente) {
+                // El anillo ya ha dado la vuelta: el cliente se ha perdido eventos
+                suscriptor.cursor = ultimaSecuencia;
+                suscriptor.reinicio = true;
+                hasta = suscriptor.cursor;
+                continue;
+            }
+            suscriptor.canal.enviar(id(siguiente), evento.tipo(), evento.datos());
+            suscriptor.cursor = siguiente;
+        }
+        if (suscriptor.latido) {
+            suscriptor.latido = false;
+            suscriptor.canal.latido();
+        }
+    }
+
+    private boolean pendiente(Suscriptor suscriptor) {
+        return suscriptor.reinicio || suscriptor.latido || suscriptor.cursor < ultimaSecuencia;
+    }
+
+    /**
+     * Secuencia desde la que reanudar un Last-Event-ID, o null si no es posible
+     * (formato desconocido, otro arranque o evento ya fuera del anillo)
+     */
+    private Long reanudable(String ultimoId, long ultima) {
+        if (ultimoId == null || !ultimoId.startsWith(instancia + "-")) {
+            return null;
+        }
+        long secuencia;
+        try {
+            secuencia = Long.parseLong(ultimoId.substring(instancia.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        // Hace falta que el siguiente evento siga en el anillo
+        boolean enAnillo = secuencia <= ultima && ultima - secuencia <= anillo.length();
+        return enAnillo ? secuencia : null;
+    }
+
+    private String id(long secuencia) {
+        return instancia + "-" + secuencia;
+    }
+
+    private int posicion(long secuencia) {
+        return (int) (secuencia % anillo.length());
+    }
+}
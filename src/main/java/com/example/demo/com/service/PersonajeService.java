@@ -1,12 +1,23 @@
 package com.example.demo.com.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.com.client.ClienteUpstream;
+import com.example.demo.com.client.ClienteUpstream.UpstreamNoDisponibleException;
+import com.example.demo.com.config.UpstreamProperties;
+import com.example.demo.com.dto.PersonajeDetalle;
+import com.example.demo.com.dto.PersonajeResumen;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
 import com.example.demo.com.model.Personaje;
 import com.example.demo.com.repository.PersonajeRepository;
 /**
@@ -52,46 +63,92 @@ import com.example.demo.com.repository.PersonajeRepository;
  * - Acceso a datos a través de PersonajeRepository.
  * - Lazy loading gestionado en entidades para evitar errores de Hibernate.
  * - Separación clara entre lógica de negocio (Service) y acceso a datos (Repository).
+ * - La API externa se consume con ClienteUpstream (plazos, reintentos, circuit breaker);
+ *   si no responde se sirve el último catálogo conocido en lugar de fallar la petición.
+ * - Las consultas van en {@code @Transactional(readOnly = true)}: se sirven desde una réplica
+ *   de lectura si hay alguna sana (ver DataSourceConfig). obtenerPersonajes y obtenerResumenes
+ *   no lo llevan porque pueden cargar desde la API; sus lecturas lo toman de PersonajeRepository
+ *   y cargarDesdeAPI es la única escritura.
  */
 @Service
 public class PersonajeService {
 
-    private final PersonajeRepository personajeRepository;
+    private static final Logger log = LoggerFactory.getLogger(PersonajeService.class);
 
-    // RestTemplate para consumir APIs externas (Dragon Ball API)
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final PersonajeRepository personajeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SnapshotCatalogoService snapshotCatalogo;
 
-    // URL base de la API de Dragon Ball
-    private static final String API_URL = "https://dragonball-api.com/api/characters?limit=10";
+    // Cliente de la API externa de Dragon Ball y URL de su primera página
+    private final ClienteUpstream clienteUpstream;
+    private final String apiUrl;
 
     /**
      * Constructor con inyección de dependencias de Spring
      */
-    public PersonajeService(PersonajeRepository personajeRepository) {
+    public PersonajeService(PersonajeRepository personajeRepository, ApplicationEventPublisher eventPublisher,
+                            SnapshotCatalogoService snapshotCatalogo, ClienteUpstream clienteUpstream,
+                            UpstreamProperties upstreamProperties) {
         this.personajeRepository = personajeRepository;
+        this.eventPublisher = eventPublisher;
+        this.snapshotCatalogo = snapshotCatalogo;
+        this.clienteUpstream = clienteUpstream;
+        this.apiUrl = upstreamProperties.getUrl();
     }
 
     /**
      * Obtener todos los personajes.
+     * Si hay un snapshot del catálogo vigente se sirve desde memoria (ver SnapshotCatalogoService).
      * Si la base de datos está vacía, se cargan desde la API externa y luego se guardan.
+     * Si la API no responde, se sirve el último catálogo conocido (o una lista vacía).
      * 
      * @return lista de personajes
      */
     public List<Personaje> obtenerPersonajes() {
+        Optional<List<Personaje>> snapshot = snapshotCatalogo.personajes();
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
         List<Personaje> personajes = personajeRepository.findAll();
         if (personajes.isEmpty()) {
-            cargarDesdeAPI(); // carga inicial desde API si BD vacía
+            if (!cargarDesdeAPI()) { // carga inicial desde API si BD vacía
+                return snapshotCatalogo.ultimoConocido().orElse(List.of());
+            }
             personajes = personajeRepository.findAll();
         }
         return personajes;
     }
 
+    /**
+     * Resúmenes de todo el catálogo para los listados y el JSON de /personajes.
+     * Igual que obtenerPersonajes: snapshot si lo hay, si no BD y, si está vacía, la API.
+     *
+     * @return resúmenes ordenados por ID
+     */
+    public List<PersonajeResumen> obtenerResumenes() {
+        Optional<List<PersonajeResumen>> snapshot = snapshotCatalogo.resumenes();
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
+        List<PersonajeResumen> resumenes = personajeRepository.findResumenes();
+        if (resumenes.isEmpty()) {
+            if (!cargarDesdeAPI()) { // carga inicial desde API si BD vacía
+                return snapshotCatalogo.ultimoConocido()
+                        .map(catalogo -> catalogo.stream().map(PersonajeResumen::de).toList())
+                        .orElse(List.of());
+            }
+            resumenes = personajeRepository.findResumenes();
+        }
+        return resumenes;
+    }
+
     /**
      * Verifica si existe un personaje por su ID
      * 
      * @param personajeId ID del personaje
      * @return true si existe, false si no
      */
+    @Transactional(readOnly = true)
     public boolean existePersonaje(Long personajeId) {
         return personajeRepository.existsById(personajeId);
     }
@@ -102,80 +159,125 @@ public class PersonajeService {
      * @param id ID del personaje
      * @return Optional con el personaje, vacío si no existe
      */
+    @Transactional(readOnly = true)
     public Optional<Personaje> obtenerPorId(Long id) {
         return personajeRepository.findById(id);
     }
 
+    /**
+     * Ficha de un personaje para el JSON de /personajes/{id} (sin relaciones lazy)
+     *
+     * @param id ID del personaje
+     * @return Optional con la ficha, vacío si no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<PersonajeDetalle> obtenerDetalle(Long id) {
+        return personajeRepository.findById(id).map(PersonajeDetalle::de);
+    }
+
     /**
      * Buscar personajes por nombre (case insensitive)
      * 
      * @param nombre nombre parcial o completo
-     * @return lista de personajes que coinciden
+     * @return resúmenes de los personajes que coinciden
      */
-    public List<Personaje> buscarPorNombre(String nombre) {
-        return personajeRepository.findAll().stream()
-                .filter(p -> p.getName().toLowerCase().contains(nombre.toLowerCase()))
-                .toList();
+    @Transactional(readOnly = true)
+    public List<PersonajeResumen> buscarPorNombre(String nombre) {
+        return personajeRepository.findResumenesPorNombre(nombre);
     }
 
     /**
      * Buscar personajes por raza (case insensitive)
      * 
      * @param race raza parcial o completa
-     * @return lista de personajes que coinciden
+     * @return resúmenes de los personajes que coinciden
      */
-    public List<Personaje> buscarPorRaza(String race) {
-        return personajeRepository.findAll().stream()
-                .filter(p -> p.getRace().toLowerCase().contains(race.toLowerCase()))
-                .toList();
+    @Transactional(readOnly = true)
+    public List<PersonajeResumen> buscarPorRaza(String race) {
+        return personajeRepository.findResumenesPorRaza(race);
+    }
+
+    /**
+     * Buscar personajes por rango de Ki base (valor normalizado)
+     *
+     * @param min    Ki mínimo (incluido)
+     * @param max    Ki máximo (incluido)
+     * @param limite número máximo de resultados
+     * @return resúmenes ordenados de menor a mayor Ki
+     */
+    @Transactional(readOnly = true)
+    public List<PersonajeResumen> buscarPorRangoKi(double min, double max, int limite) {
+        return personajeRepository.findResumenesPorRangoKi(min, max, Limit.of(limite));
+    }
+
+    /**
+     * Los K personajes más fuertes (Ki máximo) de una raza
+     *
+     * @param race raza exacta
+     * @param k    número de personajes
+     * @return resúmenes ordenados de mayor a menor Ki máximo
+     */
+    @Transactional(readOnly = true)
+    public List<PersonajeResumen> masFuertesPorRaza(String race, int k) {
+        return personajeRepository.findResumenesMasFuertes(race, Limit.of(k));
     }
 
     /**
      * Cargar personajes desde la API externa y guardarlos en la base de datos
      * 
      * Este método:
-     * - Consume la API con RestTemplate
-     * - Itera por cada personaje recibido y lo guarda en la BD
+     * - Consume la API con ClienteUpstream, página a página
      * - Maneja paginación mediante el campo "next" de la API
+     * - Solo guarda cuando tiene todas las páginas: un fallo a mitad no deja un catálogo
+     *   parcial que luego parecería completo
+     * - Al terminar publica CatalogoActualizadoEvent (invalidación de cachés e índices)
+     *
+     * @return false si la API no está disponible (nada se ha guardado)
      */
-    private void cargarDesdeAPI() {
-        String url = API_URL;
-        boolean seguir = true;
-
-        while (seguir) {
-            // Obtener respuesta de la API
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && response.containsKey("items")) {
-                List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("items");
-
-                // Guardar cada personaje en la base de datos
-                for (Map<String, Object> item : items) {
-                    Personaje p = new Personaje(
-                            ((Number) item.get("id")).longValue(),
-                            (String) item.get("name"),
-                            (String) item.get("ki"),
-                            (String) item.get("maxKi"),
-                            (String) item.get("race"),
-                            (String) item.get("gender"),
-                            (String) item.get("description"),
-                            (String) item.get("image"),
-                            (String) item.get("affiliation"),
-                            (String) item.get("deletedAt")
-                    );
-                    personajeRepository.save(p);
-                }
-            }
+    private boolean cargarDesdeAPI() {
+        List<Personaje> descargados = new ArrayList<>();
+        String url = apiUrl;
+        try {
+            while (url != null && !url.isEmpty()) {
+                Map<String, Object> response = clienteUpstream.obtenerPagina(url);
 
-            // Manejo de paginación
-            Map<String, Object> links = (Map<String, Object>) response.get("links");
-            String next = links != null ? (String) links.get("next") : null;
+                if (response.get("items") instanceof List<?> items) {
+                    for (Object item : items) {
+                        descargados.add(aPersonaje((Map<String, Object>) item));
+                    }
+                }
 
-            if (next == null || next.isEmpty()) {
-                seguir = false; // no hay más páginas
-            } else {
-                url = next; // siguiente página
+                // Manejo de paginación: sin "next" no hay más páginas
+                Map<String, Object> links = (Map<String, Object>) response.get("links");
+                url = links != null ? (String) links.get("next") : null;
             }
+        } catch (UpstreamNoDisponibleException e) {
+            log.warn("API externa no disponible ({} personajes descargados, no se guarda nada): {}",
+                    descargados.size(), e.getMessage());
+            return false;
         }
+
+        snapshotCatalogo.marcarCambio(); // el snapshot actual deja de valer aunque no cambie el número
+        List<Long> guardados = new ArrayList<>(descargados.size());
+        for (Personaje p : descargados) {
+            guardados.add(personajeRepository.save(p).getId());
+        }
+        eventPublisher.publishEvent(new CatalogoActualizadoEvent(guardados));
+        return true;
+    }
+
+    private static Personaje aPersonaje(Map<String, Object> item) {
+        return new Personaje(
+                ((Number) item.get("id")).longValue(),
+                (String) item.get("name"),
+                (String) item.get("ki"),
+                (String) item.get("maxKi"),
+                (String) item.get("race"),
+                (String) item.get("gender"),
+                (String) item.get("description"),
+                (String) item.get("image"),
+                (String) item.get("affiliation"),
+                (String) item.get("deletedAt")
+        );
     }
 }
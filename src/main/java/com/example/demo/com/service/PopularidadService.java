@@ -0,0 +1,195 @@
+package com.example.demo.com.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.com.dto.FavoritosPorPersonaje;
+import com.example.demo.com.dto.PersonajePopular;
+import com.example.demo.com.event.FavoritoCambiadoEvent;
+import com.example.demo.com.event.PopularidadCambiadaEvent;
+import com.example.demo.com.model.PersonajePopularidad;
+import com.example.demo.com.repository.PersonajePopularidadRepository;
+import com.example.demo.com.repository.PersonajeRepository;
+
+/**
+ * Contadores de favoritos por personaje y ranking de los más populares.
+ *
+ * Buenas prácticas aplicadas:
+ * - Contadores en un ConcurrentHashMap actualizados con compute(): cada actualización solo
+ *   bloquea el segmento de su personaje, nunca un lock global.
+ * - Ranking en un ConcurrentSkipListSet (sin locks) ordenado por número de favoritos:
+ *   leer el top-K es recorrer sus K primeros elementos, O(K). Solo entran los personajes con
+ *   al menos un favorito.
+ * - Los contadores se reconstruyen desde usuario_favoritos al arrancar (lo lanza
+ *   SincronizacionNodosService, junto con la versión del registro de cambios) y se vuelcan a
+ *   personaje_popularidad de forma asíncrona, solo los que han cambiado.
+ * - Cada cambio de un contador se publica como PopularidadCambiadaEvent (stream SSE).
+ */
+@Service
+public class PopularidadService {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularidadService.class);
+
+    /**
+     * Posición en el ranking: más favoritos primero, a igualdad el ID menor
+     */
+    private record Posicion(long personajeId, long total) {
+    }
+
+    private static final Comparator<Posicion> ORDEN = Comparator.comparingLong(Posicion::total).reversed()
+            .thenComparingLong(Posicion::personajeId);
+
+    private final PersonajeRepository personajeRepository;
+    private final PersonajePopularidadRepository popularidadRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Long, Long> contadores = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Posicion> ranking = new ConcurrentSkipListSet<>(ORDEN);
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    public PopularidadService(PersonajeRepository personajeRepository,
+                              PersonajePopularidadRepository popularidadRepository,
+                              ApplicationEventPublisher eventPublisher) {
+        this.personajeRepository = personajeRepository;
+        this.popularidadRepository = popularidadRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Vuelve a contar los favoritos de todos los personajes desde la tabla de unión.
+     * Los personajes que ya no tienen ningún favorito vuelven a cero.
+     * Solo se publican los contadores que ya existían y han cambiado (no la carga inicial).
+     */
+    public void reconstruir() {
+        Set<Long> contados = new HashSet<>();
+        for (FavoritosPorPersonaje f : personajeRepository.contarFavoritos()) {
+            fijar(f.personajeId(), f.total());
+            contados.add(f.personajeId());
+        }
+        for (Long personajeId : contadores.keySet()) {
+            if (!contados.contains(personajeId) && contadores.getOrDefault(personajeId, 0L) != 0) {
+                fijar(personajeId, 0);
+            }
+        }
+        log.info("Contadores de favoritos reconstruidos: {} personajes", contadores.size());
+    }
+
+    /**
+     * Actualiza el contador cuando se confirma un cambio de favoritos.
+     */
+    @TransactionalEventListener
+    public void onFavoritoCambiado(FavoritoCambiadoEvent event) {
+        long total = ajustar(event.personajeId(), event.agregado() ? 1 : -1);
+        eventPublisher.publishEvent(new PopularidadCambiadaEvent(event.personajeId(), total));
+    }
+
+    /**
+     * Número de favoritos de un personaje
+     */
+    public long total(Long personajeId) {
+        return contadores.getOrDefault(personajeId, 0L);
+    }
+
+    /**
+     * Los K personajes con más favoritos, O(K).
+     *
+     * @param k número de personajes
+     * @return IDs y número de favoritos, de más a menos
+     */
+    public List<FavoritosPorPersonaje> top(int k) {
+        List<FavoritosPorPersonaje> top = new ArrayList<>(k);
+        Set<Long> vistos = new HashSet<>();
+        for (Posicion p : ranking) {
+            if (top.size() == k) {
+                break;
+            }
+            // Durante una actualización un personaje puede aparecer un instante dos veces
+            if (vistos.add(p.personajeId())) {
+                top.add(new FavoritosPorPersonaje(p.personajeId(), p.total()));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Ranking con nombres (resueltos desde la caché de segundo nivel)
+     */
+    public List<PersonajePopular> ranking(int k) {
+        return top(k).stream()
+                .map(f -> personajeRepository.findById(f.personajeId())
+                        .map(p -> new PersonajePopular(p.getId(), p.getName(), f.total()))
+                        .orElse(null))
+                .filter(p -> p != null)
+                .toList();
+    }
+
+    /**
+     * Volcado asíncrono de los contadores modificados a personaje_popularidad.
+     */
+    @Scheduled(fixedDelayString = "${app.popularidad.volcado:PT10S}")
+    public void volcar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendientes);
+        pendientes.removeAll(ids);
+        try {
+            popularidadRepository.saveAll(ids.stream()
+                    .map(id -> new PersonajePopularidad(id, total(id)))
+                    .toList());
+        } catch (RuntimeException e) {
+            // Se reintentará en el siguiente volcado
+            pendientes.addAll(ids);
+            log.warn("No se pudieron volcar los contadores de favoritos: {}", e.getMessage());
+        }
+    }
+
+    private long ajustar(long personajeId, long delta) {
+        long total = contadores.compute(personajeId, (id, actual) -> {
+            long anterior = actual == null ? 0 : actual;
+            long nuevo = Math.max(0, anterior + delta);
+            mover(id, anterior, nuevo);
+            return nuevo;
+        });
+        pendientes.add(personajeId);
+        return total;
+    }
+
+    private void fijar(long personajeId, long total) {
+        Long[] anterior = {null};
+        contadores.compute(personajeId, (id, actual) -> {
+            anterior[0] = actual;
+            mover(id, actual == null ? -1 : actual, total);
+            return total;
+        });
+        pendientes.add(personajeId);
+        if (anterior[0] != null && anterior[0] != total) {
+            eventPublisher.publishEvent(new PopularidadCambiadaEvent(personajeId, total));
+        }
+    }
+
+    /**
+     * Se inserta la nueva posición antes de quitar la anterior para que un lector
+     * concurrente nunca vea el personaje fuera del ranking. Sin favoritos no se clasifica.
+     */
+    private void mover(long personajeId, long anterior, long nuevo) {
+        if (nuevo > 0) {
+            ranking.add(new Posicion(personajeId, nuevo));
+        }
+        if (anterior != nuevo) {
+            ranking.remove(new Posicion(personajeId, anterior));
+        }
+    }
+}
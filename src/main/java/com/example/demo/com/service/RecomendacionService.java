@@ -0,0 +1,101 @@
+package com.example.demo.com.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.demo.com.dto.FavoritoUsuario;
+import com.example.demo.com.dto.Recomendacion;
+import com.example.demo.com.event.FavoritoCambiadoEvent;
+import com.example.demo.com.repository.PersonajeRepository;
+import com.example.demo.com.repository.UsuarioRepository;
+import com.example.demo.com.search.CoFavoritos;
+
+/**
+ * Recomendaciones "los fans de este personaje también tienen como favoritos…".
+ *
+ * Buenas prácticas aplicadas:
+ * - No se hace un self-join de usuario_favoritos por petición: la matriz de co-ocurrencia
+ *   (CoFavoritos) se construye al arrancar y se actualiza con cada cambio de favoritos.
+ * - La página de detalle lee los N vecinos precalculados en O(N); nombres e imágenes
+ *   salen de la caché de segundo nivel.
+ */
+@Service
+public class RecomendacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecomendacionService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final PersonajeRepository personajeRepository;
+    private final CoFavoritos coFavoritos;
+
+    public RecomendacionService(UsuarioRepository usuarioRepository, PersonajeRepository personajeRepository,
+                                @Value("${app.recomendaciones.vecinos:10}") int vecinos) {
+        this.usuarioRepository = usuarioRepository;
+        this.personajeRepository = personajeRepository;
+        this.coFavoritos = new CoFavoritos(vecinos);
+    }
+
+    /**
+     * Construcción completa recorriendo usuario_favoritos en streaming, usuario a usuario.
+     * La lanza SincronizacionNodosService al arrancar y al resincronizar, dentro de su transacción
+     * (BD principal) para que cuadre con la versión del registro de cambios.
+     */
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        coFavoritos.vaciar();
+        try (Stream<FavoritoUsuario> favoritos = usuarioRepository.streamFavoritos()) {
+            List<Long> actuales = new ArrayList<>();
+            Long[] usuario = {null};
+            favoritos.forEach(f -> {
+                if (!f.usuarioId().equals(usuario[0])) {
+                    agregarUsuario(actuales);
+                    actuales.clear();
+                    usuario[0] = f.usuarioId();
+                }
+                actuales.add(f.personajeId());
+            });
+            agregarUsuario(actuales);
+        }
+        log.info("Recomendaciones construidas: {} pares en {} ms",
+                coFavoritos.pares(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Actualización incremental cuando se confirma un cambio de favoritos.
+     */
+    @TransactionalEventListener
+    public void onFavoritoCambiado(FavoritoCambiadoEvent event) {
+        coFavoritos.actualizar(event.personajeId(),
+                event.otrosFavoritos().stream().mapToLong(Long::longValue).toArray(), event.agregado());
+    }
+
+    /**
+     * Personajes que más comparten fans con el indicado.
+     *
+     * @param personajeId personaje de la página de detalle
+     * @param limite      número máximo de recomendaciones
+     */
+    public List<Recomendacion> recomendados(Long personajeId, int limite) {
+        return coFavoritos.vecinos(personajeId).stream()
+                .limit(limite)
+                .flatMap(v -> personajeRepository.findById(v.personajeId())
+                        .map(p -> new Recomendacion(p.getId(), p.getName(), p.getImage(), v.usuarios()))
+                        .stream())
+                .toList();
+    }
+
+    private void agregarUsuario(List<Long> favoritos) {
+        if (favoritos.size() > 1) {
+            coFavoritos.agregarUsuario(favoritos.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.demo.com.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.event.FavoritoCambiadoEvent;
+
+/**
+ * Coordinación de las cachés locales entre varios nodos usando solo la base de datos.
+ *
+ * Buenas prácticas aplicadas:
+ * - 📝 Cada cambio local (sincronización del catálogo, favorito añadido o quitado) se apunta en
+ *   catalogo_cambio. Los favoritos se apuntan antes del commit, en la misma transacción: o se
+ *   confirman las dos cosas o ninguna.
+ * - 🔓 La versión la genera la BD al insertar (AUTO_INCREMENT): apuntar un favorito no bloquea
+ *   nada compartido, así que los favoritos de distintos usuarios no se esperan entre sí.
+ * - 🕳️ A cambio, las versiones pueden confirmarse desordenadas: ver la N no garantiza ver ya la
+ *   N-1. Cada nodo aplica lo que ve en cuanto lo ve, recuerda qué versiones ha aplicado por
+ *   encima de la última sin huecos y espera por los huecos; uno que sigue vacío pasado
+ *   {@code app.nodos.asentamiento} es una transacción deshecha (su número no se reutiliza).
+ * - 🔎 Sondeo barato: cada {@code app.nodos.intervalo} se lee max(version) por la clave primaria;
+ *   solo si ha avanzado se leen los cambios posteriores.
+ * - 🔁 Los cambios de otros nodos se vuelven a publicar como eventos con {@code origenRemoto=true}:
+ *   los mismos oyentes de siempre actualizan sus cachés, y aquí se ignoran para no reenviarlos.
+ * - 🧹 Los cambios antiguos se purgan; un nodo que se queda atrás más que la retención
+ *   reconstruye sus cachés desde la BD en lugar de aplicar cambios sueltos.
+ * - 🎯 Punto de partida consistente: al arrancar (y al resincronizar) las cachés derivadas de
+ *   favoritos (contadores y recomendaciones) se reconstruyen desde aquí, en orden y en la misma
+ *   lectura consistente de la BD que el registro. Los cambios visibles en esa lectura son
+ *   exactamente los incluidos en lo reconstruido; el resto se aplica después. Ninguno se cuenta
+ *   dos veces ni se pierde, y tampoco aquí se bloquea a nadie.
+ *
+ * Las lecturas van siempre a la BD principal (transacción de escritura): una réplica con retraso
+ * podría no tener aún los cambios que anuncia la versión.
+ */
+@Service
+public class SincronizacionNodosService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SincronizacionNodosService.class);
+
+    private static final String CATALOGO = "CATALOGO";
+    private static final String FAVORITO = "FAVORITO";
+
+    /**
+     * Versiones seguidas que pueden faltar por delante de la última aplicada; más es que el
+     * registro se ha purgado mientras el nodo estaba parado
+     */
+    private static final int MAX_HUECO = 1_000;
+
+    /**
+     * Fila de catalogo_cambio
+     */
+    private record Cambio(long version, String tipo, String nodo, List<Long> personajeIds, Long usuarioId,
+                          Long personajeId, boolean agregado, List<Long> otrosFavoritos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PopularidadService popularidadService;
+    private final RecomendacionService recomendacionService;
+    private final boolean activado;
+    private final Duration retencion;
+    private final Duration asentamiento;
+    private final boolean precargar;
+    private final String nodo;
+
+    /**
+     * Versión hasta la que este nodo lo tiene todo (aplicado o descartado por deshecho);
+     * -1 hasta reconstruir al arrancar
+     */
+    private volatile long versionLocal = -1;
+
+    /**
+     * Versiones por encima de versionLocal ya aplicadas, a la espera de que se llenen los huecos
+     */
+    private final NavigableSet<Long> aplicadas = new TreeSet<>();
+
+    /**
+     * Versiones que faltan por debajo de una ya vista -> System.nanoTime() de cuando se vio el hueco
+     */
+    private final NavigableMap<Long, Long> huecos = new TreeMap<>();
+
+    /**
+     * Transacción de lectura consistente de toda la BD; se crea al primer uso (hace falta la BD)
+     */
+    private TransactionTemplate instantanea;
+
+    public SincronizacionNodosService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      ApplicationEventPublisher eventPublisher, PopularidadService popularidadService,
+                                      RecomendacionService recomendacionService,
+                                      @Value("${app.nodos.enabled:true}") boolean activado,
+                                      @Value("${app.nodos.retencion:P1D}") Duration retencion,
+                                      @Value("${app.nodos.asentamiento:PT10S}") Duration asentamiento,
+                                      @Value("${app.nodos.id:}") String nodo,
+                                      @Value("${app.arranque.precargar:true}") boolean precargar) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.popularidadService = popularidadService;
+        this.recomendacionService = recomendacionService;
+        this.activado = activado;
+        this.retencion = retencion;
+        this.asentamiento = asentamiento;
+        this.precargar = precargar;
+        this.nodo = nodo.isBlank() ? nombreNodo() : nodo;
+    }
+
+    /**
+     * Punto de partida: las cachés se construyen al arrancar con lo que ya hay en la BD, antes
+     * de que el servidor acepte peticiones y de que empiece el sondeo.
+     * (sin BD en la ejecución de entrenamiento del archivo CDS)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!precargar) {
+            return;
+        }
+        if (!activado) {
+            reconstruirCaches();
+            return;
+        }
+        reconstruirConsistente();
+        log.info("Nodo {} sincronizado con el registro de cambios en la versión {}", nodo, versionLocal);
+    }
+
+    /**
+     * Sincronización del catálogo hecha en este nodo
+     */
+    @EventListener
+    public void onCatalogoActualizado(CatalogoActualizadoEvent event) {
+        if (activado && !event.origenRemoto()) {
+            transactionTemplate.executeWithoutResult(estado ->
+                    registrar(CATALOGO, unir(event.personajeIds()), null, null, null, null));
+        }
+    }
+
+    /**
+     * Favorito cambiado en este nodo: se apunta dentro de la misma transacción
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onFavoritoCambiado(FavoritoCambiadoEvent event) {
+        if (activado && !event.origenRemoto()) {
+            registrar(FAVORITO, null, event.usuarioId(), event.personajeId(), event.agregado(),
+                    unir(event.otrosFavoritos()));
+        }
+    }
+
+    /**
+     * Aplica los cambios de otros nodos que aún no se han aplicado aquí.
+     */
+    @Scheduled(initialDelayString = "${app.nodos.intervalo:PT2S}", fixedDelayString = "${app.nodos.intervalo:PT2S}")
+    public synchronized void sincronizar() {
+        if (!activado || versionLocal < 0) {
+            return;
+        }
+        long remota = leerVersion();
+        if (remota <= versionLocal) {
+            return;
+        }
+        List<Cambio> cambios = jdbcTemplate.query("""
+                select version, tipo, nodo, personaje_ids, usuario_id, personaje_id, agregado, otros_favoritos
+                from catalogo_cambio where version > ? order by version
+                """, SincronizacionNodosService::cambio, versionLocal);
+
+        if (!cambios.isEmpty() && cambios.get(0).version() - versionLocal - 1 > MAX_HUECO) {
+            // El registro ya no llega hasta donde se quedó este nodo
+            resincronizar();
+            return;
+        }
+        List<Cambio> nuevos = cambios.stream().filter(c -> !aplicadas.contains(c.version())).toList();
+        if (!nuevos.isEmpty()) {
+            transactionTemplate.executeWithoutResult(estado -> aplicar(nuevos));
+            nuevos.forEach(c -> aplicadas.add(c.version()));
+            log.debug("Nodo {}: {} cambios aplicados (hasta la versión {})",
+                    nodo, nuevos.size(), nuevos.get(nuevos.size() - 1).version());
+        }
+        if (!avanzar(System.nanoTime())) {
+            resincronizar();
+        }
+    }
+
+    /**
+     * Borra los cambios más antiguos que la retención (con el reloj de la BD, como creado_en).
+     */
+    @Scheduled(fixedDelayString = "${app.nodos.purga:PT1H}")
+    public void purgar() {
+        if (activado) {
+            int borrados = jdbcTemplate.update(
+                    "delete from catalogo_cambio where creado_en < timestampadd(SECOND, ?, current_timestamp)",
+                    -retencion.toSeconds());
+            log.debug("Registro de cambios: {} entradas purgadas", borrados);
+        }
+    }
+
+    public long versionLocal() {
+        return versionLocal;
+    }
+
+    public String nodo() {
+        return nodo;
+    }
+
+    /**
+     * Los cambios del catálogo se agrupan en un único evento; los de favoritos se publican uno a uno
+     * y sus oyentes (@TransactionalEventListener) actúan al confirmar la transacción.
+     */
+    private void aplicar(List<Cambio> cambios) {
+        Set<Long> personajes = new LinkedHashSet<>();
+        for (Cambio cambio : cambios) {
+            if (nodo.equals(cambio.nodo())) {
+                continue; // ya aplicado en este nodo
+            }
+            if (CATALOGO.equals(cambio.tipo())) {
+                personajes.addAll(cambio.personajeIds());
+            } else if (FAVORITO.equals(cambio.tipo())) {
+                eventPublisher.publishEvent(new FavoritoCambiadoEvent(cambio.usuarioId(), cambio.personajeId(),
+                        cambio.agregado(), cambio.otrosFavoritos(), true));
+            }
+        }
+        if (!personajes.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogoActualizadoEvent(List.copyOf(personajes), true));
+        }
+    }
+
+    private void resincronizar() {
+        log.warn("Nodo {}: el registro de cambios ya no tiene la versión {}, se reconstruyen las cachés locales",
+                nodo, versionLocal + 1);
+        transactionTemplate.executeWithoutResult(estado -> eventPublisher.publishEvent(new CatalogoActualizadoEvent(
+                jdbcTemplate.queryForList("select id from personaje", Long.class), true)));
+        reconstruirConsistente();
+    }
+
+    /**
+     * Reconstruye contadores y recomendaciones y fija qué cambios del registro incluyen.
+     *
+     * Todo se lee en una misma instantánea de la BD principal: las versiones visibles en el
+     * registro son exactamente los cambios que ya estaban confirmados en lo reconstruido. Las que
+     * faltan entre ellas (transacciones en vuelo) quedan como huecos y se aplicarán al llegar.
+     * Por debajo de la última versión con más antigüedad que el asentamiento (o de la más antigua
+     * conservada, si es mayor) no se espera nada.
+     */
+    private synchronized void reconstruirConsistente() {
+        List<Long> visibles = instantanea().execute(estado -> {
+            long asentada = jdbcTemplate.queryForObject("""
+                    select coalesce(max(version), 0) from catalogo_cambio
+                    where creado_en < timestampadd(SECOND, ?, current_timestamp)
+                    """, Long.class, -asentamiento.toSeconds());
+            // Lo que falta por debajo del registro conservado está purgado, no en vuelo
+            long conservada = jdbcTemplate.queryForObject(
+                    "select coalesce(min(version), 1) - 1 from catalogo_cambio", Long.class);
+            List<Long> versiones = new ArrayList<>();
+            versiones.add(Math.max(asentada, conservada));
+            versiones.addAll(jdbcTemplate.queryForList(
+                    "select version from catalogo_cambio where version > ? order by version",
+                    Long.class, versiones.get(0)));
+            reconstruirCaches();
+            return versiones;
+        });
+        aplicadas.clear();
+        huecos.clear();
+        versionLocal = visibles.get(0);
+        aplicadas.addAll(visibles.subList(1, visibles.size()));
+        avanzar(System.nanoTime());
+    }
+
+    /**
+     * Apunta los huecos nuevos y avanza versionLocal por las versiones ya aplicadas y por los
+     * huecos que llevan más del asentamiento sin llenarse (transacciones deshechas).
+     *
+     * @return false si un hueco está por debajo del registro conservado: puede ser un cambio
+     *         purgado antes de aplicarlo y hay que resincronizar
+     */
+    private boolean avanzar(long ahora) {
+        long anterior = versionLocal;
+        for (long version : aplicadas) {
+            for (long hueco = anterior + 1; hueco < version; hueco++) {
+                huecos.putIfAbsent(hueco, ahora);
+            }
+            anterior = version;
+        }
+        Long minima = null;
+        while (true) {
+            long siguiente = versionLocal + 1;
+            if (aplicadas.remove(siguiente)) {
+                huecos.remove(siguiente);
+                versionLocal = siguiente;
+                continue;
+            }
+            Long visto = huecos.get(siguiente);
+            if (visto == null || ahora - visto < asentamiento.toNanos()) {
+                return true;
+            }
+            if (minima == null) {
+                minima = jdbcTemplate.queryForObject("select coalesce(min(version), 0) from catalogo_cambio",
+                        Long.class);
+            }
+            if (siguiente < minima) {
+                return false;
+            }
+            log.debug("Nodo {}: la versión {} no llegó a confirmarse, se da por deshecha", nodo, siguiente);
+            huecos.remove(siguiente);
+            versionLocal = siguiente;
+        }
+    }
+
+    /**
+     * InnoDB (MySQL) da una lectura consistente de toda la BD en REPEATABLE READ sin bloquear a
+     * nadie; H2 solo en SERIALIZABLE (en REPEATABLE READ fija cada tabla al leerla por primera vez)
+     */
+    private TransactionTemplate instantanea() {
+        if (instantanea == null) {
+            String bd = jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                    con.getMetaData().getDatabaseProductName());
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setIsolationLevel("H2".equals(bd) ? TransactionDefinition.ISOLATION_SERIALIZABLE
+                    : TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            instantanea = template;
+        }
+        return instantanea;
+    }
+
+    /**
+     * Cachés locales derivadas de los favoritos, siempre en el mismo orden
+     */
+    private void reconstruirCaches() {
+        popularidadService.reconstruir();
+        recomendacionService.reconstruir();
+    }
+
+    private void registrar(String tipo, String personajeIds, Long usuarioId, Long personajeId, Boolean agregado,
+                           String otrosFavoritos) {
+        // Solo un INSERT: la versión la asigna la BD y no hay ninguna fila compartida que bloquear
+        jdbcTemplate.update("""
+                insert into catalogo_cambio (tipo, nodo, personaje_ids, usuario_id, personaje_id,
+                                             agregado, otros_favoritos, creado_en)
+                values (?, ?, ?, ?, ?, ?, ?, current_timestamp)
+                """, tipo, nodo, personajeIds, usuarioId, personajeId, agregado, otrosFavoritos);
+    }
+
+    /**
+     * Última versión visible (el extremo del índice de la clave primaria)
+     */
+    private long leerVersion() {
+        Long version = jdbcTemplate.queryForObject("select coalesce(max(version), 0) from catalogo_cambio",
+                Long.class);
+        return version != null ? version : 0;
+    }
+
+    private static Cambio cambio(ResultSet rs, int fila) throws SQLException {
+        return new Cambio(rs.getLong("version"), rs.getString("tipo"), rs.getString("nodo"),
+                separar(rs.getString("personaje_ids")), rs.getObject("usuario_id", Long.class),
+                rs.getObject("personaje_id", Long.class), rs.getBoolean("agregado"),
+                separar(rs.getString("otros_favoritos")));
+    }
+
+    private static String unir(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static List<Long> separar(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).toList();
+    }
+
+    private static String nombreNodo() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "nodo";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
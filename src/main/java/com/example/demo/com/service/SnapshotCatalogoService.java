@@ -0,0 +1,276 @@
+package com.example.demo.com.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.com.dto.PersonajeResumen;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+import com.example.demo.com.util.SnapshotCatalogo;
+
+/**
+ * Snapshot binario del catálogo para arrancar en frío sin esperar a la BD ni a la API.
+ *
+ * Buenas prácticas aplicadas:
+ * - Se escribe tras cada sincronización con la API (antes que el resto de oyentes del
+ *   evento, para que índices y sugerencias se construyan ya con el catálogo nuevo).
+ * - Al arrancar se mapea en memoria y se valida (cabecera + CRC32). Si es válido:
+ *   - con la BD vacía se usa para poblarla (sin recorrer la API);
+ *   - con la BD poblada solo se usa si su marca coincide con catalogo_version.version_catalogo
+ *     (y, como comprobación extra, el número de personajes). La marca avanza con cada cambio de
+ *     personajes (marcarCambio, antes de guardarlos), así que una edición que no cambia el
+ *     número de personajes también invalida el snapshot.
+ * - Si falta, está corrupto, es antiguo o no coincide, se ignora y se sigue como siempre
+ *   (BD y, si está vacía, API); en cuanto hay catálogo en la BD se vuelve a escribir.
+ * - Un catálogo vacío nunca se escribe ni se usa: se trata como si no hubiera snapshot, para que
+ *   los listados sigan cayendo a la BD y a la API en lugar de servir [] indefinidamente.
+ * - Los personajes del snapshot son objetos desacoplados de JPA y de solo lectura.
+ */
+@Service
+public class SnapshotCatalogoService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotCatalogoService.class);
+
+    private final PersonajeRepository personajeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Path ruta;
+    private final Duration maxEdad;
+    private final boolean precargar;
+
+    /**
+     * Catálogo del snapshot vigente; null si no hay uno válido
+     */
+    private volatile List<Personaje> personajes;
+    private volatile List<PersonajeResumen> resumenes;
+
+    /**
+     * Último catálogo escrito en disco aunque no sea vigente; null si aún no se ha leído
+     */
+    private volatile Optional<List<Personaje>> ultimoConocido;
+
+    public SnapshotCatalogoService(PersonajeRepository personajeRepository, JdbcTemplate jdbcTemplate,
+                                   @Value("${app.snapshot.ruta:data/catalogo.snap}") Path ruta,
+                                   @Value("${app.snapshot.max-edad:P7D}") Duration maxEdad,
+                                   @Value("${app.arranque.precargar:true}") boolean precargar) {
+        this.personajeRepository = personajeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ruta = ruta;
+        this.maxEdad = maxEdad;
+        this.precargar = precargar;
+    }
+
+    /**
+     * Carga al arrancar, antes de que el servidor web acepte peticiones.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!precargar) {
+            return;
+        }
+        if (!Files.exists(ruta)) {
+            log.info("No hay snapshot del catálogo en {}", ruta);
+            return;
+        }
+        long inicio = System.nanoTime();
+        SnapshotCatalogo.Contenido contenido;
+        try {
+            contenido = SnapshotCatalogo.leer(ruta);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Snapshot del catálogo descartado ({}): {}", ruta, e.getMessage());
+            return;
+        }
+        if (contenido.personajes().isEmpty()) {
+            log.info("Snapshot del catálogo descartado: está vacío");
+            return;
+        }
+        Duration edad = Duration.ofMillis(System.currentTimeMillis() - contenido.escritoEn());
+        if (edad.compareTo(maxEdad) > 0) {
+            log.info("Snapshot del catálogo descartado: tiene {} (máximo {})", edad, maxEdad);
+            return;
+        }
+
+        long enBd = personajeRepository.count();
+        if (enBd == 0) {
+            poblarBd(contenido.personajes());
+            jdbcTemplate.update("update catalogo_version set version_catalogo = ? where id = 1", contenido.marca());
+        } else {
+            long marcaBd = leerMarca();
+            if (marcaBd != contenido.marca() || enBd != contenido.personajes().size()) {
+                log.info("Snapshot del catálogo descartado: marca {} y {} personajes frente a marca {} y {} en la BD",
+                        contenido.marca(), contenido.personajes().size(), marcaBd, enBd);
+                return;
+            }
+        }
+        usar(contenido.personajes());
+        log.info("Catálogo cargado desde el snapshot: {} personajes en {} ms",
+                personajes.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Si no se pudo usar el snapshot pero la BD ya tiene catálogo, se crea para el próximo arranque.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearSiFalta() {
+        if (personajes == null && personajeRepository.count() > 0) {
+            escribir();
+        }
+    }
+
+    /**
+     * Tras cada sincronización se reescribe el snapshot desde la BD.
+     */
+    @EventListener(CatalogoActualizadoEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogoActualizado() {
+        escribir();
+    }
+
+    /**
+     * Avanza la marca del contenido del catálogo. Se llama antes de guardar cambios en los
+     * personajes: si el proceso cae a mitad, el snapshot ya no coincide y se descarta.
+     */
+    public void marcarCambio() {
+        jdbcTemplate.update("update catalogo_version set version_catalogo = version_catalogo + 1 where id = 1");
+    }
+
+    /**
+     * Catálogo del snapshot, si hay uno vigente
+     */
+    public Optional<List<Personaje>> personajes() {
+        return Optional.ofNullable(personajes);
+    }
+
+    /**
+     * Resúmenes del snapshot para los listados, si hay uno vigente
+     */
+    public Optional<List<PersonajeResumen>> resumenes() {
+        return Optional.ofNullable(resumenes);
+    }
+
+    /**
+     * Último catálogo conocido para cuando la API externa no responde y la BD está vacía:
+     * el snapshot vigente o, si no lo hay, el fichero aunque sea antiguo o no coincida con la BD.
+     * El fichero se lee una sola vez; sus personajes no se guardan en la BD.
+     */
+    public Optional<List<Personaje>> ultimoConocido() {
+        List<Personaje> actual = personajes;
+        if (actual != null) {
+            return Optional.of(actual);
+        }
+        Optional<List<Personaje>> leido = ultimoConocido;
+        if (leido == null) {
+            leido = leerSinValidar();
+            ultimoConocido = leido;
+        }
+        return leido;
+    }
+
+    /**
+     * Catálogo completo: el del snapshot o, si no hay, el de la BD
+     */
+    public List<Personaje> catalogo() {
+        List<Personaje> actual = personajes;
+        return actual != null ? actual : personajeRepository.findAll();
+    }
+
+    /**
+     * Escribe el snapshot con el contenido actual de la BD y pasa a servir desde él.
+     * Se relee del disco para validar lo escrito y quedarse con objetos desacoplados de JPA.
+     * Un fallo no interrumpe la sincronización: se sigue sirviendo desde la BD.
+     * Con la BD vacía no se escribe nada y se deja de servir desde memoria.
+     */
+    void escribir() {
+        long inicio = System.nanoTime();
+        try {
+            // La marca se lee antes que los personajes: si cambian entre medias, el snapshot
+            // queda con una marca antigua y se descarta en el próximo arranque (nunca al revés)
+            long marca = leerMarca();
+            List<Personaje> catalogo = personajeRepository.findAll();
+            if (catalogo.isEmpty()) {
+                personajes = null;
+                resumenes = null;
+                log.debug("Catálogo vacío: no se escribe el snapshot");
+                return;
+            }
+            SnapshotCatalogo.escribir(ruta, catalogo, System.currentTimeMillis(), marca);
+            usar(SnapshotCatalogo.leer(ruta).personajes());
+            log.info("Snapshot del catálogo escrito: {} personajes en {} ms",
+                    personajes.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException | IllegalStateException e) {
+            personajes = null;
+            resumenes = null;
+            log.error("No se pudo escribir el snapshot del catálogo en {}", ruta, e);
+        }
+    }
+
+    private Optional<List<Personaje>> leerSinValidar() {
+        if (!Files.exists(ruta)) {
+            return Optional.empty();
+        }
+        try {
+            SnapshotCatalogo.Contenido contenido = SnapshotCatalogo.leer(ruta);
+            if (contenido.personajes().isEmpty()) {
+                return Optional.empty();
+            }
+            log.warn("Sirviendo el último catálogo conocido ({} personajes, escrito hace {})",
+                    contenido.personajes().size(),
+                    Duration.ofMillis(System.currentTimeMillis() - contenido.escritoEn()));
+            return Optional.of(List.copyOf(contenido.personajes()));
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Snapshot del catálogo ilegible ({}): {}", ruta, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private long leerMarca() {
+        Long marca = jdbcTemplate.queryForObject("select version_catalogo from catalogo_version where id = 1",
+                Long.class);
+        return marca != null ? marca : 0;
+    }
+
+    private void usar(List<Personaje> catalogo) {
+        resumenes = catalogo.stream().map(PersonajeResumen::de).toList();
+        personajes = List.copyOf(catalogo);
+    }
+
+    /**
+     * Puebla una BD vacía con el snapshot conservando los IDs (favoritos y URLs siguen valiendo).
+     */
+    private void poblarBd(List<Personaje> catalogo) {
+        jdbcTemplate.batchUpdate("""
+                insert into personaje (id, name, ki, max_ki, ki_valor, max_ki_valor, race, gender,
+                                       description, image, affiliation, deleted_at)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, catalogo, 500, (ps, p) -> {
+                    ps.setLong(1, p.getId());
+                    ps.setString(2, p.getName());
+                    ps.setString(3, p.getKi());
+                    ps.setString(4, p.getMaxKi());
+                    ps.setObject(5, p.getKiValor());
+                    ps.setObject(6, p.getMaxKiValor());
+                    ps.setString(7, p.getRace());
+                    ps.setString(8, p.getGender());
+                    ps.setString(9, p.getDescription());
+                    ps.setString(10, p.getImage());
+                    ps.setString(11, p.getAffiliation());
+                    ps.setString(12, p.getDeletedAt());
+                });
+        log.info("BD vacía poblada desde el snapshot del catálogo: {} personajes", catalogo.size());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.com.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.com.dto.Sugerencia;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.event.PopularidadCambiadaEvent;
+import com.example.demo.com.search.TrieSugerencias;
+
+/**
+ * Autocompletado de nombres de personajes.
+ *
+ * Buenas prácticas aplicadas:
+ * - Las consultas se responden desde un trie en memoria (sin acceso a la BD por pulsación).
+ * - El trie es inmutable: se reconstruye en un hilo propio (nunca en el que publica el evento)
+ *   y se publica con una referencia volatile, de modo que las lecturas nunca se bloquean.
+ * - Se reconstruye al arrancar y tras cada sincronización del catálogo, que es cuando cambian
+ *   los nombres. Las peticiones que llegan mientras se reconstruye se agrupan en una sola.
+ * - El orden por popularidad (contadores de PopularidadService) cambia con cada favorito: esos
+ *   cambios solo marcan el trie como desordenado y se reconstruye como mucho una vez por
+ *   {@code app.sugerencias.reordenacion}.
+ */
+@Service
+public class SugerenciasService {
+
+    private static final Logger log = LoggerFactory.getLogger(SugerenciasService.class);
+
+    private final SnapshotCatalogoService snapshotCatalogo;
+    private final PopularidadService popularidadService;
+    private final int topK;
+
+    private volatile TrieSugerencias trie = TrieSugerencias.construir(List.of(), 1);
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("sugerencias").factory());
+    private final AtomicBoolean pendiente = new AtomicBoolean();
+    private final AtomicBoolean desordenado = new AtomicBoolean();
+
+    public SugerenciasService(SnapshotCatalogoService snapshotCatalogo, PopularidadService popularidadService,
+                              @Value("${app.sugerencias.top-k:10}") int topK) {
+        this.snapshotCatalogo = snapshotCatalogo;
+        this.popularidadService = popularidadService;
+        this.topK = topK;
+    }
+
+    /**
+     * Sugerencias para lo que el usuario lleva escrito.
+     *
+     * @param prefijo texto escrito
+     * @param limite  número máximo de sugerencias
+     */
+    public List<Sugerencia> sugerir(String prefijo, int limite) {
+        return trie.sugerir(prefijo, limite).stream()
+                .map(e -> new Sugerencia(e.id(), e.nombre(), e.popularidad()))
+                .toList();
+    }
+
+    /**
+     * Cambian los nombres (o es el arranque): se reconstruye en cuanto sea posible.
+     */
+    @EventListener({ApplicationReadyEvent.class, CatalogoActualizadoEvent.class})
+    public void onCatalogoActualizado() {
+        programar();
+    }
+
+    /**
+     * Un contador de favoritos ha cambiado: solo se anota, sin trabajo en el hilo del favorito.
+     */
+    @EventListener
+    public void onPopularidadCambiada(PopularidadCambiadaEvent event) {
+        desordenado.set(true);
+    }
+
+    /**
+     * Reordena por popularidad si ha cambiado algún contador desde la última vez.
+     */
+    @Scheduled(fixedDelayString = "${app.sugerencias.reordenacion:PT30S}")
+    public void reordenar() {
+        if (desordenado.getAndSet(false)) {
+            programar();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Encola una reconstrucción; si ya hay otra esperando, la que se ejecute atiende a las dos.
+     */
+    private void programar() {
+        if (ejecutor.isShutdown()) {
+            return;
+        }
+        pendiente.set(true);
+        ejecutor.execute(() -> {
+            if (!pendiente.getAndSet(false)) {
+                return;
+            }
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                // Se sigue sirviendo el trie anterior hasta la siguiente reconstrucción
+                log.warn("No se pudo reconstruir el trie de sugerencias: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reconstruye el trie con el catálogo y la popularidad actuales.
+     */
+    void reconstruir() {
+        long inicio = System.nanoTime();
+        desordenado.set(false); // lo que cambie a partir de aquí se recoge en la siguiente
+        List<TrieSugerencias.Entrada> entradas = snapshotCatalogo.catalogo().stream()
+                .map(p -> new TrieSugerencias.Entrada(p.getId(), p.getName(), popularidadService.total(p.getId())))
+                .toList();
+        trie = TrieSugerencias.construir(entradas, topK);
+        log.debug("Trie de sugerencias reconstruido: {} nombres, {} nodos en {} ms",
+                entradas.size(), trie.nodos(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
@@ -3,10 +3,14 @@ package com.example.demo.com.service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.com.dto.PersonajeResumen;
+import com.example.demo.com.event.FavoritoCambiadoEvent;
 import com.example.demo.com.model.Personaje;
 import com.example.demo.com.model.Usuario;
 import com.example.demo.com.repository.PersonajeRepository;
@@ -15,18 +19,29 @@ import com.example.demo.com.repository.UsuarioRepository;
 import jakarta.transaction.Transactional;
 import lombok.Data;
 
+/**
+ * Servicio de usuarios y favoritos.
+ *
+ * Todas sus operaciones se ejecutan en transacciones de lectura/escritura, por lo que
+ * siempre van a la base de datos principal: así un usuario ve inmediatamente sus propios
+ * cambios (registro, favoritos) aunque las réplicas lleven algo de retraso.
+ */
 @Data
 @Service
+@Transactional
 public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PersonajeRepository personajeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UsuarioService(UsuarioRepository usuarioRepository, PersonajeRepository personajeRepository, PasswordEncoder passwordEncoder) {
+    public UsuarioService(UsuarioRepository usuarioRepository, PersonajeRepository personajeRepository,
+                          PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher) {
         this.usuarioRepository = usuarioRepository;
         this.personajeRepository = personajeRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     public Usuario registrarUsuario(Usuario usuario) {
@@ -48,7 +63,11 @@ public class UsuarioService {
         Personaje personaje = personajeRepository.findById(personajeId)
                 .orElseThrow(() -> new RuntimeException("Personaje no encontrado"));
 
-        usuario.getFavoritos().add(personaje);
+        // Solo se notifica si realmente cambia (contadores de popularidad, etc.)
+        if (usuario.getFavoritos().add(personaje)) {
+            eventPublisher.publishEvent(new FavoritoCambiadoEvent(usuario.getId(), personajeId, true,
+                    otrosFavoritos(usuario, personajeId)));
+        }
     }
 
     @Transactional
@@ -56,7 +75,17 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.findByUsernameWithFavoritos(username)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        usuario.getFavoritos().removeIf(p -> p.getId().equals(personajeId));
+        if (usuario.getFavoritos().removeIf(p -> p.getId().equals(personajeId))) {
+            eventPublisher.publishEvent(new FavoritoCambiadoEvent(usuario.getId(), personajeId, false,
+                    otrosFavoritos(usuario, personajeId)));
+        }
+    }
+
+    private static List<Long> otrosFavoritos(Usuario usuario, Long personajeId) {
+        return usuario.getFavoritos().stream()
+                .map(Personaje::getId)
+                .filter(id -> !id.equals(personajeId))
+                .toList();
     }
 
     public Optional<Usuario> buscarPorId(Long usuarioId) {
@@ -78,6 +107,26 @@ public class UsuarioService {
         return new ArrayList<>(usuario.getFavoritos());
     }
 
+    /**
+     * Favoritos de un usuario como resúmenes para el listado (consulta directa, sin entidades)
+     *
+     * @param username Nombre de usuario
+     * @return resúmenes de sus personajes favoritos
+     */
+    public List<PersonajeResumen> obtenerFavoritosResumen(String username) {
+        return usuarioRepository.findFavoritosResumen(username);
+    }
+
+    /**
+     * IDs de los favoritos de un usuario (para marcar ❤️ en los listados)
+     *
+     * @param username Nombre de usuario
+     * @return IDs de sus personajes favoritos
+     */
+    public Set<Long> obtenerFavoritosIds(String username) {
+        return usuarioRepository.findFavoritosIds(username);
+    }
+
     /**
      * Nuevo método: verifica si un usuario existe por su username.
      *
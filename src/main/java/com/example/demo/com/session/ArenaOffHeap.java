@@ -0,0 +1,133 @@
+package com.example.demo.com.session;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Memoria fuera del heap para registros binarios pequeños (sesiones codificadas).
+ *
+ * - Reserva bloques de 1 MB con ByteBuffer.allocateDirect, agrupados por tamaño de hueco
+ *   (128 B … 64 KB): el GC no recorre su contenido y no hay fragmentación entre clases.
+ * - Cada registro se identifica con un "handle" long (clase + número de hueco); los huecos
+ *   liberados se reutilizan mediante una pila de libres por clase.
+ * - Escribir/liberar bloquea solo la clase afectada; las lecturas son absolutas sobre el
+ *   buffer y no bloquean. El llamador debe evitar leer un handle que otro hilo esté
+ *   liberando (el repositorio lo garantiza con el mapa de índices).
+ * - Los bloques no se devuelven al sistema: la memoria se queda en el máximo de sesiones
+ *   simultáneas alcanzado, igual que un pool.
+ */
+public class ArenaOffHeap {
+
+    static final int BLOQUE = 1 << 20;
+    private static final int CABECERA = 4; // longitud del registro
+    private static final int[] TAMANOS = {128, 256, 512, 1024, 2048, 4096, 8192, 16384, 32768, 65536};
+
+    private final Clase[] clases = new Clase[TAMANOS.length];
+
+    public ArenaOffHeap() {
+        for (int i = 0; i < TAMANOS.length; i++) {
+            clases[i] = new Clase(TAMANOS[i]);
+        }
+    }
+
+    /**
+     * Copia los datos fuera del heap
+     *
+     * @return handle para leerlos o liberarlos
+     * @throws IllegalArgumentException si el registro supera el mayor tamaño de hueco
+     */
+    public long escribir(byte[] datos) {
+        int necesario = datos.length + CABECERA;
+        int c = 0;
+        while (c < TAMANOS.length && TAMANOS[c] < necesario) {
+            c++;
+        }
+        if (c == TAMANOS.length) {
+            throw new IllegalArgumentException("Registro demasiado grande para la arena: " + datos.length + " bytes");
+        }
+        int hueco = clases[c].reservar();
+        ByteBuffer bloque = clases[c].bloque(hueco);
+        int offset = clases[c].offset(hueco);
+        bloque.putInt(offset, datos.length);
+        bloque.put(offset + CABECERA, datos);
+        return ((long) c << 32) | hueco;
+    }
+
+    public byte[] leer(long handle) {
+        Clase clase = clases[(int) (handle >>> 32)];
+        int hueco = (int) handle;
+        ByteBuffer bloque = clase.bloque(hueco);
+        int offset = clase.offset(hueco);
+        byte[] datos = new byte[bloque.getInt(offset)];
+        bloque.get(offset + CABECERA, datos);
+        return datos;
+    }
+
+    /**
+     * Lee un long del registro sin copiarlo entero (p. ej. la fecha de expiración)
+     */
+    public long leerLong(long handle, int posicion) {
+        Clase clase = clases[(int) (handle >>> 32)];
+        int hueco = (int) handle;
+        return clase.bloque(hueco).getLong(clase.offset(hueco) + CABECERA + posicion);
+    }
+
+    public void liberar(long handle) {
+        clases[(int) (handle >>> 32)].liberar((int) handle);
+    }
+
+    /**
+     * Bytes reservados fuera del heap
+     */
+    public long bytesReservados() {
+        long total = 0;
+        for (Clase clase : clases) {
+            total += (long) clase.bloques.length * BLOQUE;
+        }
+        return total;
+    }
+
+    /**
+     * Huecos de un mismo tamaño
+     */
+    private static final class Clase {
+        private final int tamano;
+        private final int huecosPorBloque;
+        private volatile ByteBuffer[] bloques = new ByteBuffer[0];
+        private int[] libres = new int[64];
+        private int nLibres;
+        private int siguiente;
+
+        Clase(int tamano) {
+            this.tamano = tamano;
+            this.huecosPorBloque = BLOQUE / tamano;
+        }
+
+        synchronized int reservar() {
+            if (nLibres > 0) {
+                return libres[--nLibres];
+            }
+            if (siguiente == bloques.length * huecosPorBloque) {
+                ByteBuffer[] nuevos = Arrays.copyOf(bloques, bloques.length + 1);
+                nuevos[bloques.length] = ByteBuffer.allocateDirect(BLOQUE);
+                bloques = nuevos;
+            }
+            return siguiente++;
+        }
+
+        synchronized void liberar(int hueco) {
+            if (nLibres == libres.length) {
+                libres = Arrays.copyOf(libres, libres.length * 2);
+            }
+            libres[nLibres++] = hueco;
+        }
+
+        ByteBuffer bloque(int hueco) {
+            return bloques[hueco / huecosPorBloque];
+        }
+
+        int offset(int hueco) {
+            return (hueco % huecosPorBloque) * tamano;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.com.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.session.MapSession;
+
+/**
+ * Formato binario compacto de una sesión.
+ *
+ * Disposición: expiraEn (long, milisegundos, primero para poder barrer sin decodificar;
+ * Long.MAX_VALUE si la inactividad máxima es negativa, es decir, si no caduca),
+ * creación, último acceso, inactividad máxima (segundos) y los atributos.
+ *
+ * Buenas prácticas aplicadas:
+ * - El SecurityContext de un login por formulario (User + authorities + detalles web) se
+ *   guarda campo a campo: unas decenas de bytes frente a ~1 KB con serialización Java.
+ * - Cadenas con writeUTF y un byte de tipo por atributo.
+ * - Cualquier otro atributo Serializable se guarda con serialización Java como respaldo.
+ */
+class CodificadorSesion {
+
+    static final int POSICION_EXPIRACION = 0;
+
+    private static final byte TIPO_SERIALIZADO = 0;
+    private static final byte TIPO_CONTEXTO = 1;
+    private static final byte TIPO_TEXTO = 2;
+
+    byte[] codificar(MapSession sesion) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(expiraEn(sesion));
+            out.writeLong(sesion.getCreationTime().toEpochMilli());
+            out.writeLong(sesion.getLastAccessedTime().toEpochMilli());
+            out.writeInt((int) sesion.getMaxInactiveInterval().toSeconds());
+            out.writeShort(sesion.getAttributeNames().size());
+            for (String nombre : sesion.getAttributeNames()) {
+                out.writeUTF(nombre);
+                escribirValor(out, nombre, sesion.getAttribute(nombre));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Instante de caducidad en milisegundos, como MapSession.isExpired: inactividad negativa = nunca
+     */
+    static long expiraEn(MapSession sesion) {
+        if (sesion.getMaxInactiveInterval().isNegative()) {
+            return Long.MAX_VALUE;
+        }
+        return sesion.getLastAccessedTime().plus(sesion.getMaxInactiveInterval()).toEpochMilli();
+    }
+
+    MapSession decodificar(String id, byte[] datos) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(datos))) {
+            in.readLong(); // expiraEn: se recalcula a partir del último acceso
+            MapSession sesion = new MapSession(id);
+            sesion.setCreationTime(Instant.ofEpochMilli(in.readLong()));
+            sesion.setLastAccessedTime(Instant.ofEpochMilli(in.readLong()));
+            sesion.setMaxInactiveInterval(Duration.ofSeconds(in.readInt()));
+            int atributos = in.readShort();
+            for (int i = 0; i < atributos; i++) {
+                String nombre = in.readUTF();
+                sesion.setAttribute(nombre, leerValor(in));
+            }
+            return sesion;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escribirValor(DataOutputStream out, String nombre, Object valor) throws IOException {
+        if (valor instanceof String texto) {
+            out.writeByte(TIPO_TEXTO);
+            out.writeUTF(texto);
+        } else if (valor instanceof SecurityContext contexto && esLoginCompacto(contexto.getAuthentication())) {
+            out.writeByte(TIPO_CONTEXTO);
+            escribirContexto(out, contexto.getAuthentication());
+        } else if (valor instanceof Serializable) {
+            ByteArrayOutputStream serializado = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(serializado)) {
+                oos.writeObject(valor);
+            }
+            out.writeByte(TIPO_SERIALIZADO);
+            out.writeInt(serializado.size());
+            serializado.writeTo(out);
+        } else {
+            throw new IllegalStateException("Atributo de sesión no serializable: " + nombre);
+        }
+    }
+
+    private Object leerValor(DataInputStream in) throws IOException {
+        byte tipo = in.readByte();
+        switch (tipo) {
+            case TIPO_TEXTO:
+                return in.readUTF();
+            case TIPO_CONTEXTO:
+                return leerContexto(in);
+            case TIPO_SERIALIZADO:
+                byte[] serializado = new byte[in.readInt()];
+                in.readFully(serializado);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serializado))) {
+                    return ois.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException("Clase de atributo de sesión desconocida", e);
+                }
+            default:
+                throw new IllegalStateException("Tipo de atributo de sesión desconocido: " + tipo);
+        }
+    }
+
+    /**
+     * Solo el caso habitual del formulario de login: User sin contraseña (ya borrada tras
+     * autenticar), authorities simples y detalles web o ninguno.
+     */
+    private static boolean esLoginCompacto(Authentication auth) {
+        return auth != null
+                && auth.getClass() == UsernamePasswordAuthenticationToken.class
+                && auth.isAuthenticated()
+                && auth.getCredentials() == null
+                && auth.getPrincipal() instanceof User user && user.getClass() == User.class
+                && user.getPassword() == null
+                && (auth.getDetails() == null || auth.getDetails().getClass() == WebAuthenticationDetails.class)
+                && auth.getAuthorities().stream().allMatch(a -> a.getClass() == SimpleGrantedAuthority.class);
+    }
+
+    private static void escribirContexto(DataOutputStream out, Authentication auth) throws IOException {
+        User user = (User) auth.getPrincipal();
+        out.writeUTF(user.getUsername());
+        out.writeByte((user.isEnabled() ? 1 : 0)
+                | (user.isAccountNonExpired() ? 2 : 0)
+                | (user.isCredentialsNonExpired() ? 4 : 0)
+                | (user.isAccountNonLocked() ? 8 : 0));
+        out.writeShort(auth.getAuthorities().size());
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            out.writeUTF(authority.getAuthority());
+        }
+        WebAuthenticationDetails detalles = (WebAuthenticationDetails) auth.getDetails();
+        out.writeBoolean(detalles != null);
+        if (detalles != null) {
+            escribirOpcional(out, detalles.getRemoteAddress());
+            escribirOpcional(out, detalles.getSessionId());
+        }
+    }
+
+    private static SecurityContext leerContexto(DataInputStream in) throws IOException {
+        String username = in.readUTF();
+        int flags = in.readByte();
+        int n = in.readShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+        }
+        User user = new User(username, "", (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0, (flags & 8) != 0,
+                authorities);
+        user.eraseCredentials();
+        UsernamePasswordAuthenticationToken auth =
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        if (in.readBoolean()) {
+            auth.setDetails(new WebAuthenticationDetails(leerOpcional(in), leerOpcional(in)));
+        }
+        return new SecurityContextImpl(auth);
+    }
+
+    private static void escribirOpcional(DataOutputStream out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeUTF(valor);
+        }
+    }
+
+    private static String leerOpcional(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.com.session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+/**
+ * Repositorio de sesiones HTTP fuera del heap.
+ *
+ * - En el heap solo queda el índice id → handle (un Long por sesión); el contenido
+ *   (SecurityContext incluido) se guarda codificado en una {@link ArenaOffHeap}.
+ * - Cada petición trabaja con una MapSession temporal que se decodifica al llegar y se
+ *   vuelve a codificar al terminar (SessionRepositoryFilter llama a save).
+ * - Las sesiones caducadas se descartan al leerlas y con un barrido periódico que solo
+ *   lee la fecha de expiración, sin decodificar la sesión.
+ * - Todo acceso a un handle se hace dentro de compute/computeIfPresent del índice, así
+ *   nunca se lee un hueco que otro hilo acaba de liberar y reutilizar.
+ */
+public class OffHeapSessionRepository implements SessionRepository<MapSession> {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapSessionRepository.class);
+
+    private final ConcurrentHashMap<String, Long> indice = new ConcurrentHashMap<>();
+    private final ArenaOffHeap arena = new ArenaOffHeap();
+    private final CodificadorSesion codificador = new CodificadorSesion();
+    private final Duration maxInactivo;
+    private final Clock reloj;
+
+    public OffHeapSessionRepository(Duration maxInactivo) {
+        this(maxInactivo, Clock.systemUTC());
+    }
+
+    OffHeapSessionRepository(Duration maxInactivo, Clock reloj) {
+        this.maxInactivo = maxInactivo;
+        this.reloj = reloj;
+    }
+
+    @Override
+    public MapSession createSession() {
+        MapSession sesion = new MapSession();
+        sesion.setCreationTime(reloj.instant());
+        sesion.setLastAccessedTime(sesion.getCreationTime());
+        sesion.setMaxInactiveInterval(maxInactivo);
+        return sesion;
+    }
+
+    @Override
+    public void save(MapSession sesion) {
+        if (!sesion.getId().equals(sesion.getOriginalId())) {
+            deleteById(sesion.getOriginalId()); // cambio de id tras el login (session fixation)
+        }
+        byte[] datos = codificador.codificar(sesion);
+        indice.compute(sesion.getId(), (id, anterior) -> {
+            long handle = arena.escribir(datos);
+            if (anterior != null) {
+                arena.liberar(anterior);
+            }
+            return handle;
+        });
+    }
+
+    @Override
+    public MapSession findById(String id) {
+        byte[][] datos = new byte[1][];
+        indice.computeIfPresent(id, (k, handle) -> {
+            datos[0] = arena.leer(handle);
+            return handle;
+        });
+        if (datos[0] == null) {
+            return null;
+        }
+        MapSession sesion = codificador.decodificar(id, datos[0]);
+        if (CodificadorSesion.expiraEn(sesion) < reloj.millis()) {
+            deleteById(id);
+            return null;
+        }
+        return sesion;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        indice.computeIfPresent(id, (k, handle) -> {
+            arena.liberar(handle);
+            return null;
+        });
+    }
+
+    /**
+     * Barrido de sesiones inactivas
+     *
+     * @return número de sesiones eliminadas
+     */
+    @Scheduled(fixedDelayString = "${app.session.sweep-interval:PT1M}")
+    public int barrer() {
+        long ahora = reloj.millis();
+        int[] eliminadas = {0};
+        for (String id : indice.keySet()) {
+            indice.computeIfPresent(id, (k, handle) -> {
+                if (arena.leerLong(handle, CodificadorSesion.POSICION_EXPIRACION) < ahora) {
+                    arena.liberar(handle);
+                    eliminadas[0]++;
+                    return null;
+                }
+                return handle;
+            });
+        }
+        if (eliminadas[0] > 0) {
+            log.debug("Sesiones caducadas eliminadas: {} (quedan {})", eliminadas[0], indice.size());
+        }
+        return eliminadas[0];
+    }
+
+    public int sesiones() {
+        return indice.size();
+    }
+
+    /**
+     * Memoria reservada fuera del heap
+     */
+    public long bytesOffHeap() {
+        return arena.bytesReservados();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.com.util;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte los valores de Ki de la API (texto libre) en un número comparable.
+ *
+ * Formatos reconocidos:
+ * - Separador de miles con puntos o comas: "60.000.000", "530,000"
+ * - Decimales con escala en inglés (escala corta, como la API): "2.5 Billion", "90 Septillion"
+ * - "Googolplex" e "Infinity" se tratan como el máximo representable, para que ordenen arriba
+ *
+ * Cualquier otro valor ("Unknown", vacío...) devuelve null.
+ */
+public final class KiParser {
+
+    private static final Pattern FORMATO = Pattern.compile("^([0-9][0-9.,]*)\\s*([a-z]*)$");
+
+    private static final Map<String, Double> ESCALAS = Map.ofEntries(
+            Map.entry("", 1d),
+            Map.entry("thousand", 1e3),
+            Map.entry("million", 1e6),
+            Map.entry("billion", 1e9),
+            Map.entry("trillion", 1e12),
+            Map.entry("quadrillion", 1e15),
+            Map.entry("quintillion", 1e18),
+            Map.entry("sextillion", 1e21),
+            Map.entry("septillion", 1e24),
+            Map.entry("octillion", 1e27),
+            Map.entry("nonillion", 1e30),
+            Map.entry("decillion", 1e33),
+            Map.entry("googol", 1e100));
+
+    private KiParser() {
+    }
+
+    /**
+     * @param ki valor tal como viene de la API
+     * @return valor numérico o null si no se reconoce
+     */
+    public static Double parse(String ki) {
+        if (ki == null) {
+            return null;
+        }
+        String texto = ki.trim().toLowerCase();
+        if (texto.contains("googolplex") || texto.contains("infinit")) {
+            return Double.MAX_VALUE;
+        }
+        Matcher m = FORMATO.matcher(texto);
+        if (!m.matches()) {
+            return null;
+        }
+        String escala = m.group(2).endsWith("s") ? m.group(2).substring(0, m.group(2).length() - 1) : m.group(2);
+        Double multiplicador = ESCALAS.get(escala);
+        if (multiplicador == null) {
+            return null;
+        }
+        String numero = normalizarNumero(m.group(1), !escala.isEmpty());
+        try {
+            return Double.parseDouble(numero) * multiplicador;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deja el número con el punto como separador decimal y sin separadores de miles.
+     *
+     * @param conEscala si lleva palabra de escala ("2.5 Billion"), un único separador seguido
+     *                  de tres cifras se interpreta como decimal; sin escala ("60.000"), como miles
+     */
+    private static String normalizarNumero(String numero, boolean conEscala) {
+        int puntos = numero.length() - numero.replace(".", "").length();
+        int comas = numero.length() - numero.replace(",", "").length();
+        if (puntos > 0 && comas > 0) {
+            // El último separador que aparece es el decimal
+            boolean decimalEsPunto = numero.lastIndexOf('.') > numero.lastIndexOf(',');
+            return decimalEsPunto
+                    ? numero.replace(",", "")
+                    : numero.replace(".", "").replace(',', '.');
+        }
+        char separador = puntos > 0 ? '.' : ',';
+        int veces = Math.max(puntos, comas);
+        if (veces == 0) {
+            return numero;
+        }
+        boolean miles = veces > 1 || (!conEscala && numero.length() - numero.lastIndexOf(separador) == 4);
+        return miles
+                ? numero.replace(String.valueOf(separador), "")
+                : numero.replace(separador, '.');
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.com.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.example.demo.com.model.Personaje;
+
+/**
+ * Fichero binario con una copia del catálogo de personajes.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * int    MAGIA ("DBCS")
+ * short  VERSION
+ * long   escrito en (epoch ms)
+ * long   marca del contenido (catalogo_version.version_catalogo al escribirlo)
+ * int    número de personajes
+ * int    longitud del cuerpo
+ * long   CRC32 del cuerpo
+ * cuerpo: por personaje id (long), kiValor y maxKiValor (double, NaN = null) y los
+ *         textos name, ki, maxKi, race, gender, description, image, affiliation,
+ *         deletedAt como (int longitud, -1 = null) + UTF-8
+ * </pre>
+ *
+ * - Se escribe en un fichero temporal y se renombra de forma atómica: un lector nunca ve
+ *   un fichero a medias.
+ * - Se lee con un MappedByteBuffer (sin copiar el fichero al heap) y se valida la cabecera
+ *   y el CRC antes de decodificar nada.
+ */
+public final class SnapshotCatalogo {
+
+    private static final int MAGIA = 0x44424353;
+    private static final short VERSION = 2;
+    private static final int CABECERA = 4 + 2 + 8 + 8 + 4 + 4 + 8;
+
+    private SnapshotCatalogo() {
+    }
+
+    /**
+     * Contenido de un snapshot válido
+     */
+    public record Contenido(long escritoEn, long marca, List<Personaje> personajes) {
+    }
+
+    /**
+     * Escribe el catálogo de forma atómica
+     */
+    public static void escribir(Path ruta, List<Personaje> personajes, long escritoEn, long marca)
+            throws IOException {
+        ByteBuffer cuerpo = ByteBuffer.allocate(tamanoCuerpo(personajes));
+        for (Personaje p : personajes) {
+            cuerpo.putLong(p.getId());
+            cuerpo.putDouble(p.getKiValor() != null ? p.getKiValor() : Double.NaN);
+            cuerpo.putDouble(p.getMaxKiValor() != null ? p.getMaxKiValor() : Double.NaN);
+            for (String texto : textos(p)) {
+                if (texto == null) {
+                    cuerpo.putInt(-1);
+                } else {
+                    byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                    cuerpo.putInt(bytes.length);
+                    cuerpo.put(bytes);
+                }
+            }
+        }
+        cuerpo.flip();
+        CRC32 crc = new CRC32();
+        crc.update(cuerpo.duplicate());
+
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA)
+                .putInt(MAGIA)
+                .putShort(VERSION)
+                .putLong(escritoEn)
+                .putLong(marca)
+                .putInt(personajes.size())
+                .putInt(cuerpo.remaining())
+                .putLong(crc.getValue())
+                .flip();
+
+        Path directorio = ruta.toAbsolutePath().getParent();
+        Files.createDirectories(directorio);
+        Path temporal = Files.createTempFile(directorio, ruta.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                while (cabecera.hasRemaining() || cuerpo.hasRemaining()) {
+                    canal.write(new ByteBuffer[] {cabecera, cuerpo});
+                }
+                canal.force(true);
+            }
+            Files.move(temporal, ruta, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Lee y valida un snapshot
+     *
+     * @throws IOException si no se puede leer
+     * @throws IllegalStateException si la cabecera, la versión o el CRC no son válidos
+     */
+    public static Contenido leer(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() < CABECERA) {
+                throw new IllegalStateException("Snapshot truncado: " + canal.size() + " bytes");
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGIA) {
+                throw new IllegalStateException("No es un snapshot del catálogo");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IllegalStateException("Versión de snapshot no soportada: " + version);
+            }
+            long escritoEn = buffer.getLong();
+            long marca = buffer.getLong();
+            int n = buffer.getInt();
+            int longitud = buffer.getInt();
+            long crcEsperado = buffer.getLong();
+            if (longitud != canal.size() - CABECERA) {
+                throw new IllegalStateException("Snapshot truncado o con bytes de más");
+            }
+
+            ByteBuffer cuerpo = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(cuerpo.duplicate());
+            if (crc.getValue() != crcEsperado) {
+                throw new IllegalStateException("CRC del snapshot no coincide");
+            }
+
+            List<Personaje> personajes = new ArrayList<>(n);
+            try {
+                for (int i = 0; i < n; i++) {
+                    personajes.add(leerPersonaje(cuerpo));
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IllegalStateException("Snapshot mal formado", e);
+            }
+            return new Contenido(escritoEn, marca, personajes);
+        }
+    }
+
+    private static Personaje leerPersonaje(ByteBuffer cuerpo) {
+        long id = cuerpo.getLong();
+        double kiValor = cuerpo.getDouble();
+        double maxKiValor = cuerpo.getDouble();
+        String[] t = new String[9];
+        for (int j = 0; j < t.length; j++) {
+            int longitud = cuerpo.getInt();
+            if (longitud >= 0) {
+                byte[] bytes = new byte[longitud];
+                cuerpo.get(bytes);
+                t[j] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        Personaje p = new Personaje(id, t[0], t[1], t[2], t[3], t[4], t[5], t[6], t[7], t[8]);
+        p.setKiValor(Double.isNaN(kiValor) ? null : kiValor);
+        p.setMaxKiValor(Double.isNaN(maxKiValor) ? null : maxKiValor);
+        return p;
+    }
+
+    private static String[] textos(Personaje p) {
+        return new String[] {p.getName(), p.getKi(), p.getMaxKi(), p.getRace(), p.getGender(),
+                p.getDescription(), p.getImage(), p.getAffiliation(), p.getDeletedAt()};
+    }
+
+    private static int tamanoCuerpo(List<Personaje> personajes) {
+        int total = 0;
+        for (Personaje p : personajes) {
+            total += 8 + 8 + 8;
+            for (String texto : textos(p)) {
+                total += 4 + (texto == null ? 0 : texto.getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+        return total;
+    }
+}
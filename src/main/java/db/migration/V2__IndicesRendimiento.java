@@ -0,0 +1,163 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Índices y restricciones para las consultas más frecuentes.
+ *
+ * Es una migración Java porque tiene que funcionar en dos puntos de partida:
+ * - BD nueva: las tablas de V1, sin índices ni clave primaria en usuario_favoritos.
+ * - BD anterior a Flyway (baseline en la versión 1): tablas creadas por Hibernate con
+ *   ddl-auto=update. usuario_favoritos ya suele tener clave primaria compuesta (Hibernate la
+ *   genera para un Set) y usuarios.username puede tener duplicados.
+ * MySQL no tiene "IF NOT EXISTS" para claves primarias ni índices, así que se consulta el
+ * esquema con DatabaseMetaData. Los favoritos repetidos se deduplican (no cambia nada visible);
+ * los usuarios repetidos detienen la migración: qué cuenta conservar lo decide una persona.
+ */
+public class V2__IndicesRendimiento extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V2__IndicesRendimiento.class);
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexion = context.getConnection();
+
+        // findByUsername / existsByUsername (login, registro, favoritos): búsqueda por igualdad
+        if (!tieneIndiceUnico(conexion, "usuarios", "username")) {
+            comprobarUsuariosDuplicados(conexion);
+            ejecutar(conexion, "CREATE UNIQUE INDEX uk_usuarios_username ON usuarios (username)");
+        }
+
+        // Filtros del catálogo por raza y afiliación
+        if (!existeIndice(conexion, "personaje", "idx_personaje_race")) {
+            ejecutar(conexion, "CREATE INDEX idx_personaje_race ON personaje (race)");
+        }
+        if (!existeIndice(conexion, "personaje", "idx_personaje_affiliation")) {
+            ejecutar(conexion, "CREATE INDEX idx_personaje_affiliation ON personaje (affiliation)");
+        }
+
+        // Un personaje solo puede estar una vez en los favoritos de un usuario.
+        // La clave (usuario_id, personaje_id) sirve además para el join usuario -> favoritos;
+        // el sentido personaje -> usuarios usa el índice de la foreign key de personaje_id.
+        if (!tieneClavePrimaria(conexion, "usuario_favoritos")) {
+            quitarFavoritosDuplicados(conexion);
+            ejecutar(conexion, "ALTER TABLE usuario_favoritos "
+                    + "ADD CONSTRAINT pk_usuario_favoritos PRIMARY KEY (usuario_id, personaje_id)");
+        }
+    }
+
+    /**
+     * Sin índice único, el esquema antiguo permitía repetir username (y esos usuarios ya no podían
+     * entrar: findByUsername falla con más de un resultado). No se renombra ni se borra a nadie:
+     * la migración falla indicando los nombres repetidos para resolverlos a mano y volver a arrancar.
+     */
+    private static void comprobarUsuariosDuplicados(Connection conexion) throws SQLException {
+        Map<String, List<Long>> repetidos = new LinkedHashMap<>();
+        try (Statement select = conexion.createStatement();
+             ResultSet rs = select.executeQuery("""
+                     SELECT id, username FROM usuarios
+                     WHERE username IN (SELECT username FROM usuarios GROUP BY username HAVING COUNT(*) > 1)
+                     ORDER BY username, id
+                     """)) {
+            while (rs.next()) {
+                repetidos.computeIfAbsent(rs.getString("username"), u -> new ArrayList<>()).add(rs.getLong("id"));
+            }
+        }
+        if (!repetidos.isEmpty()) {
+            log.error("Usuarios con nombre repetido (username -> ids): {}", repetidos);
+            throw new IllegalStateException("No se puede crear el índice único de usuarios.username: hay "
+                    + repetidos.size() + " nombres repetidos (username -> ids: " + repetidos
+                    + "). Renómbralos o fusiónalos y vuelve a arrancar la aplicación.");
+        }
+    }
+
+    /**
+     * Deja una sola fila por cada par (usuario_id, personaje_id) repetido
+     */
+    private static void quitarFavoritosDuplicados(Connection conexion) throws SQLException {
+        List<long[]> duplicados = new ArrayList<>();
+        try (Statement select = conexion.createStatement();
+             ResultSet rs = select.executeQuery("""
+                     SELECT usuario_id, personaje_id FROM usuario_favoritos
+                     GROUP BY usuario_id, personaje_id HAVING COUNT(*) > 1
+                     """)) {
+            while (rs.next()) {
+                duplicados.add(new long[] { rs.getLong(1), rs.getLong(2) });
+            }
+        }
+        try (PreparedStatement delete = conexion.prepareStatement(
+                     "DELETE FROM usuario_favoritos WHERE usuario_id = ? AND personaje_id = ?");
+             PreparedStatement insert = conexion.prepareStatement(
+                     "INSERT INTO usuario_favoritos (usuario_id, personaje_id) VALUES (?, ?)")) {
+            for (long[] par : duplicados) {
+                delete.setLong(1, par[0]);
+                delete.setLong(2, par[1]);
+                delete.executeUpdate();
+                insert.setLong(1, par[0]);
+                insert.setLong(2, par[1]);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    private static boolean tieneClavePrimaria(Connection conexion, String tabla) throws SQLException {
+        try (ResultSet rs = conexion.getMetaData().getPrimaryKeys(conexion.getCatalog(), conexion.getSchema(),
+                tabla)) {
+            return rs.next();
+        }
+    }
+
+    private static boolean existeIndice(Connection conexion, String tabla, String nombre) throws SQLException {
+        return indices(conexion, tabla, false).containsKey(nombre.toLowerCase());
+    }
+
+    /**
+     * ¿Hay un índice único sobre exactamente esa columna? (con cualquier nombre, p. ej. el
+     * que genera Hibernate para @Column(unique = true))
+     */
+    private static boolean tieneIndiceUnico(Connection conexion, String tabla, String columna) throws SQLException {
+        return indices(conexion, tabla, true).values().stream()
+                .anyMatch(columnas -> columnas.size() == 1 && columnas.get(0).equalsIgnoreCase(columna));
+    }
+
+    /**
+     * Índices de la tabla: nombre (en minúsculas) -> columnas
+     */
+    private static Map<String, List<String>> indices(Connection conexion, String tabla, boolean soloUnicos)
+            throws SQLException {
+        Map<String, List<String>> indices = new HashMap<>();
+        DatabaseMetaData metadatos = conexion.getMetaData();
+        try (ResultSet rs = metadatos.getIndexInfo(conexion.getCatalog(), conexion.getSchema(), tabla, soloUnicos,
+                true)) {
+            while (rs.next()) {
+                String nombre = rs.getString("INDEX_NAME");
+                String columna = rs.getString("COLUMN_NAME");
+                if (nombre != null && columna != null) {
+                    indices.computeIfAbsent(nombre.toLowerCase(), n -> new ArrayList<>()).add(columna);
+                }
+            }
+        }
+        return indices;
+    }
+
+    private static void ejecutar(Connection conexion, String sql) throws SQLException {
+        try (Statement statement = conexion.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
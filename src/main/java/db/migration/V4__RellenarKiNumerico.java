@@ -0,0 +1,108 @@
+package db.migration;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Rellena ki_valor y max_ki_valor de los personajes ya existentes.
+ *
+ * Es una migración Java porque el formato de los textos de Ki ("60.000.000", "90 Septillion")
+ * no se puede interpretar de forma portable en SQL. El intérprete es una copia congelada del
+ * KiParser de la aplicación tal como era al escribir esta migración: si KiParser cambia más
+ * adelante, esta migración sigue dando el mismo resultado en cualquier BD donde se ejecute.
+ */
+public class V4__RellenarKiNumerico extends BaseJavaMigration {
+
+    private static final Pattern FORMATO = Pattern.compile("^([0-9][0-9.,]*)\\s*([a-z]*)$");
+
+    private static final Map<String, Double> ESCALAS = Map.ofEntries(
+            Map.entry("", 1d),
+            Map.entry("thousand", 1e3),
+            Map.entry("million", 1e6),
+            Map.entry("billion", 1e9),
+            Map.entry("trillion", 1e12),
+            Map.entry("quadrillion", 1e15),
+            Map.entry("quintillion", 1e18),
+            Map.entry("sextillion", 1e21),
+            Map.entry("septillion", 1e24),
+            Map.entry("octillion", 1e27),
+            Map.entry("nonillion", 1e30),
+            Map.entry("decillion", 1e33),
+            Map.entry("googol", 1e100));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, ki, max_ki FROM personaje");
+             PreparedStatement update = context.getConnection()
+                     .prepareStatement("UPDATE personaje SET ki_valor = ?, max_ki_valor = ? WHERE id = ?")) {
+            while (rs.next()) {
+                update.setObject(1, parse(rs.getString("ki")));
+                update.setObject(2, parse(rs.getString("max_ki")));
+                update.setLong(3, rs.getLong("id"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    /**
+     * @param ki valor tal como viene de la API
+     * @return valor numérico o null si no se reconoce
+     */
+    private static Double parse(String ki) {
+        if (ki == null) {
+            return null;
+        }
+        String texto = ki.trim().toLowerCase();
+        if (texto.contains("googolplex") || texto.contains("infinit")) {
+            return Double.MAX_VALUE;
+        }
+        Matcher m = FORMATO.matcher(texto);
+        if (!m.matches()) {
+            return null;
+        }
+        String escala = m.group(2).endsWith("s") ? m.group(2).substring(0, m.group(2).length() - 1) : m.group(2);
+        Double multiplicador = ESCALAS.get(escala);
+        if (multiplicador == null) {
+            return null;
+        }
+        String numero = normalizarNumero(m.group(1), !escala.isEmpty());
+        try {
+            return Double.parseDouble(numero) * multiplicador;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deja el número con el punto como separador decimal y sin separadores de miles
+     * (un único separador seguido de tres cifras es decimal con escala y de miles sin ella)
+     */
+    private static String normalizarNumero(String numero, boolean conEscala) {
+        int puntos = numero.length() - numero.replace(".", "").length();
+        int comas = numero.length() - numero.replace(",", "").length();
+        if (puntos > 0 && comas > 0) {
+            boolean decimalEsPunto = numero.lastIndexOf('.') > numero.lastIndexOf(',');
+            return decimalEsPunto
+                    ? numero.replace(",", "")
+                    : numero.replace(".", "").replace(',', '.');
+        }
+        char separador = puntos > 0 ? '.' : ',';
+        int veces = Math.max(puntos, comas);
+        if (veces == 0) {
+            return numero;
+        }
+        boolean miles = veces > 1 || (!conEscala && numero.length() - numero.lastIndexOf(separador) == 4);
+        return miles
+                ? numero.replace(String.valueOf(separador), "")
+                : numero.replace(separador, '.');
+    }
+}
@@ -0,0 +1,30 @@
+-- Esquema inicial: las mismas tablas que generaba Hibernate con ddl-auto=update.
+-- En bases de datos ya existentes esta versión no se ejecuta (baseline en la versión 1).
+
+CREATE TABLE IF NOT EXISTS personaje (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255),
+    ki          VARCHAR(255),
+    max_ki      VARCHAR(255),
+    race        VARCHAR(255),
+    gender      VARCHAR(255),
+    description VARCHAR(1000),
+    image       VARCHAR(255),
+    affiliation VARCHAR(255),
+    deleted_at  VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id       BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255),
+    password VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS usuario_favoritos (
+    usuario_id   BIGINT NOT NULL,
+    personaje_id BIGINT NOT NULL,
+    CONSTRAINT fk_usuario_favoritos_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_usuario_favoritos_personaje FOREIGN KEY (personaje_id) REFERENCES personaje (id)
+);
@@ -0,0 +1,11 @@
+-- Ki normalizado a número para ordenar y filtrar por poder sin cargar todo el catálogo.
+-- Los valores de las filas existentes los rellena la migración Java V4.
+
+ALTER TABLE personaje ADD COLUMN ki_valor DOUBLE;
+ALTER TABLE personaje ADD COLUMN max_ki_valor DOUBLE;
+
+-- Consultas por rango de Ki
+CREATE INDEX idx_personaje_ki_valor ON personaje (ki_valor);
+
+-- Top-K de los más fuertes de una raza: igualdad en race + orden por max_ki_valor
+CREATE INDEX idx_personaje_race_max_ki_valor ON personaje (race, max_ki_valor);
@@ -0,0 +1,11 @@
+-- Contadores de favoritos por personaje, mantenidos en memoria y volcados periódicamente.
+-- Evita agregar usuario_favoritos en cada petición del ranking.
+
+CREATE TABLE personaje_popularidad (
+    personaje_id BIGINT NOT NULL,
+    total        BIGINT NOT NULL,
+    PRIMARY KEY (personaje_id),
+    CONSTRAINT fk_personaje_popularidad_personaje FOREIGN KEY (personaje_id) REFERENCES personaje (id)
+);
+
+CREATE INDEX idx_personaje_popularidad_total ON personaje_popularidad (total);
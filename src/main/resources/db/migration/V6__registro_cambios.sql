@@ -0,0 +1,27 @@
+-- Coordinación entre nodos sin broker: versión del catálogo + registro de cambios.
+-- Cada nodo lee catalogo_version (una fila por clave primaria) y, si ha avanzado,
+-- aplica a sus cachés locales solo los cambios posteriores a la última versión que vio.
+
+CREATE TABLE catalogo_version (
+    id             INT    NOT NULL,
+    version_actual BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO catalogo_version (id, version_actual) VALUES (1, 0);
+
+CREATE TABLE catalogo_cambio (
+    version         BIGINT      NOT NULL,
+    tipo            VARCHAR(20) NOT NULL,
+    nodo            VARCHAR(100) NOT NULL,
+    personaje_ids   TEXT,
+    usuario_id      BIGINT,
+    personaje_id    BIGINT,
+    agregado        BOOLEAN,
+    otros_favoritos TEXT,
+    creado_en       TIMESTAMP   NOT NULL,
+    PRIMARY KEY (version)
+);
+
+-- Purga de cambios antiguos
+CREATE INDEX idx_catalogo_cambio_creado_en ON catalogo_cambio (creado_en);
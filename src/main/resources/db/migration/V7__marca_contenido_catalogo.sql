@@ -0,0 +1,5 @@
+-- Marca del contenido del catálogo para validar el snapshot binario al arrancar.
+-- version_actual avanza también con los favoritos; version_catalogo solo cuando cambian
+-- los personajes, así que un snapshot escrito con la misma marca tiene el mismo contenido.
+
+ALTER TABLE catalogo_version ADD COLUMN version_catalogo BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- La versión de cada cambio la genera la BD al insertarlo (AUTO_INCREMENT) en lugar de salir de
+-- un contador en catalogo_version: el contador era una fila que cada favorito bloqueaba hasta su
+-- commit, así que todos los favoritos del clúster se esperaban entre sí.
+
+-- Continuidad: si el último cambio ya se purgó, se deja una entrada con la versión actual para
+-- que las nuevas sigan numerándose a partir de ella (los nodos ignoran este tipo de entrada).
+INSERT INTO catalogo_cambio (version, tipo, nodo, creado_en)
+SELECT v.version_actual, 'MIGRACION', 'migracion', CURRENT_TIMESTAMP
+FROM catalogo_version v
+WHERE v.id = 1
+  AND v.version_actual > 0
+  AND NOT EXISTS (SELECT 1 FROM catalogo_cambio c WHERE c.version = v.version_actual);
+
+-- AUTO_INCREMENT continúa desde la versión más alta existente
+ALTER TABLE catalogo_cambio MODIFY version BIGINT NOT NULL AUTO_INCREMENT;
+
+ALTER TABLE catalogo_version DROP COLUMN version_actual;
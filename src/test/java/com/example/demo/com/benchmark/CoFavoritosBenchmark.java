@@ -0,0 +1,99 @@
+package com.example.demo.com.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.com.search.CoFavoritos;
+
+/**
+ * Coste de actualización y memoria de la matriz de co-favoritos a 1M de usuarios.
+ *
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=CoFavoritosBenchmark
+ *
+ * - Catálogo de 1.000 personajes con popularidad sesgada (unos pocos personajes acaparan
+ *   la mayoría de favoritos, como en la realidad).
+ * - Cada usuario tiene entre 1 y 9 favoritos (media 5).
+ */
+@Tag("benchmark")
+class CoFavoritosBenchmark {
+
+    private static final int USUARIOS = 1_000_000;
+    private static final int PERSONAJES = 1_000;
+    private static final int CAMBIOS = 1_000_000;
+
+    @Test
+    void actualizacionYMemoria() {
+        SplittableRandom random = new SplittableRandom(42);
+        CoFavoritos coFavoritos = new CoFavoritos(10);
+
+        long heapAntes = heapUsado();
+        long inicio = System.nanoTime();
+        for (int u = 0; u < USUARIOS; u++) {
+            coFavoritos.agregarUsuario(favoritos(random, 1 + random.nextInt(9)));
+        }
+        long construccion = System.nanoTime() - inicio;
+        long heapDespues = heapUsado();
+
+        // Cambios sueltos: un usuario con 4 favoritos añade o quita uno
+        long[][] otros = new long[1024][];
+        long[] personajes = new long[1024];
+        for (int i = 0; i < otros.length; i++) {
+            otros[i] = favoritos(random, 4);
+            personajes[i] = personaje(random);
+        }
+        for (int i = 0; i < 100_000; i++) {  // calentamiento
+            coFavoritos.actualizar(personajes[i & 1023], otros[i & 1023], (i & 1) == 0);
+        }
+        inicio = System.nanoTime();
+        for (int i = 0; i < CAMBIOS; i++) {
+            coFavoritos.actualizar(personajes[i & 1023], otros[i & 1023], (i & 1) == 0);
+        }
+        long actualizacion = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        long leidos = 0;
+        for (int i = 0; i < CAMBIOS; i++) {
+            leidos += coFavoritos.vecinos(personajes[i & 1023]).size();
+        }
+        long lectura = System.nanoTime() - inicio;
+
+        System.out.printf("CoFavoritos: %,d usuarios, %,d personajes, %,d pares%n",
+                USUARIOS, PERSONAJES, coFavoritos.pares());
+        System.out.printf("  construcción completa: %,d ms%n", construccion / 1_000_000);
+        System.out.printf("  actualización (toggle, 4 otros favoritos): %,d ns/op%n", actualizacion / CAMBIOS);
+        System.out.printf("  lectura top-10: %,d ns/op%n", lectura / CAMBIOS);
+        System.out.printf("  memoria estimada: %,d KB, delta de heap: %,d KB%n",
+                coFavoritos.bytesEstimados() / 1024, (heapDespues - heapAntes) / 1024);
+
+        assertThat(leidos).isPositive();
+        assertThat(coFavoritos.pares()).isLessThanOrEqualTo((long) PERSONAJES * (PERSONAJES - 1));
+    }
+
+    private static long[] favoritos(SplittableRandom random, int cuantos) {
+        long[] ids = new long[cuantos];
+        for (int i = 0; i < cuantos; i++) {
+            ids[i] = personaje(random);
+        }
+        return ids;
+    }
+
+    /**
+     * Distribución sesgada hacia los IDs bajos (aprox. ley de potencias)
+     */
+    private static long personaje(SplittableRandom random) {
+        double u = random.nextDouble();
+        return 1 + (long) (PERSONAJES * u * u * u) % PERSONAJES;
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
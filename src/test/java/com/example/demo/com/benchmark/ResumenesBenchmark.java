@@ -0,0 +1,119 @@
+package com.example.demo.com.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Coste por petición del listado completo: entidades Personaje frente a PersonajeResumen.
+ *
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=ResumenesBenchmark
+ *
+ * Cada "petición" es la consulta del catálogo (con la caché de consultas caliente, como en
+ * producción) más su serialización a JSON. Se mide el tiempo medio y los bytes reservados
+ * en el heap por petición (ThreadMXBean), con 1.000 personajes de descripción larga.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = DemoApplication.class)
+class ResumenesBenchmark {
+
+    private static final int PERSONAJES = 1_000;
+    private static final int PETICIONES = 300;
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> creados = new ArrayList<>();
+
+    /**
+     * Las entidades no se pueden serializar tal cual fuera de la sesión (usuarios es lazy):
+     * para poder comparar se ignora la colección, como haría un @JsonIgnore.
+     */
+    abstract static class SinUsuarios {
+        @JsonIgnore
+        abstract Object getUsuarios();
+    }
+
+    @BeforeEach
+    void crearCatalogo() {
+        String descripcion = "Guerrero legendario. ".repeat(50).substring(0, 950);
+        List<Personaje> personajes = new ArrayList<>();
+        for (int i = 0; i < PERSONAJES; i++) {
+            personajes.add(new Personaje(null, "Personaje " + i, "60.000.000", "90 Septillion", "Saiyan", "Male",
+                    descripcion, "https://dragonball-api.com/characters/" + i + ".webp", "Z Fighter", null));
+        }
+        personajeRepository.saveAll(personajes).forEach(p -> creados.add(p.getId()));
+    }
+
+    @AfterEach
+    void borrarCatalogo() {
+        personajeRepository.deleteAllById(creados);
+    }
+
+    @Test
+    void entidadesFrenteAResumenes() throws Exception {
+        ObjectMapper entidades = objectMapper.copy().addMixIn(Personaje.class, SinUsuarios.class);
+
+        Medida completas = medir(() -> serializar(entidades, personajeRepository.findAll()));
+        Medida resumenes = medir(() -> serializar(objectMapper, personajeRepository.findResumenes()));
+
+        System.out.printf("Listado de %,d personajes, %d peticiones%n", PERSONAJES, PETICIONES);
+        System.out.printf("  entidades:  %,8d us/petición  %,10d B reservados  %,8d B de JSON%n",
+                completas.micros(), completas.bytes(), completas.json());
+        System.out.printf("  resúmenes:  %,8d us/petición  %,10d B reservados  %,8d B de JSON%n",
+                resumenes.micros(), resumenes.bytes(), resumenes.json());
+        System.out.printf("  ahorro:     %.0f%% tiempo, %.0f%% memoria, %.0f%% JSON%n",
+                100.0 - 100.0 * resumenes.micros() / completas.micros(),
+                100.0 - 100.0 * resumenes.bytes() / completas.bytes(),
+                100.0 - 100.0 * resumenes.json() / completas.json());
+
+        assertThat(resumenes.json()).isLessThan(completas.json());
+    }
+
+    private record Medida(long micros, long bytes, long json) {
+    }
+
+    private Medida medir(Supplier<byte[]> peticion) {
+        for (int i = 0; i < PETICIONES; i++) { // calentamiento (JIT y caché de consultas)
+            peticion.get();
+        }
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().threadId();
+        long bytesAntes = hilos.getThreadAllocatedBytes(id);
+        long inicio = System.nanoTime();
+        long json = 0;
+        for (int i = 0; i < PETICIONES; i++) {
+            json = peticion.get().length;
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(id) - bytesAntes;
+        return new Medida(nanos / PETICIONES / 1_000, bytes / PETICIONES, json);
+    }
+
+    private static byte[] serializar(ObjectMapper mapper, Object valor) {
+        try {
+            return mapper.writeValueAsBytes(valor);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.com.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+
+import com.example.demo.com.session.OffHeapSessionRepository;
+
+/**
+ * Coste en heap por sesión con login: sesiones en el heap (MapSessionRepository, equivalente
+ * a guardar los objetos tal cual como hace el contenedor) frente a OffHeapSessionRepository.
+ *
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=SesionesBenchmark
+ */
+@Tag("benchmark")
+class SesionesBenchmark {
+
+    private static final int SESIONES = 200_000;
+
+    @Test
+    void heapPorSesion() {
+        long antes = heapUsado();
+        MapSessionRepository enHeap = new MapSessionRepository(new ConcurrentHashMap<>());
+        llenar(enHeap::createSession, enHeap::save);
+        long heapEnHeap = heapUsado() - antes;
+        assertThat(enHeap.findById(ultimo)).isNotNull();
+        enHeap = null;
+        ids.clear();
+
+        antes = heapUsado();
+        OffHeapSessionRepository offHeap = new OffHeapSessionRepository(Duration.ofMinutes(30));
+        long inicio = System.nanoTime();
+        llenar(offHeap::createSession, offHeap::save);
+        long escritura = System.nanoTime() - inicio;
+        long heapOffHeap = heapUsado() - antes;
+
+        inicio = System.nanoTime();
+        for (String id : ids) {
+            offHeap.findById(id);
+        }
+        long lectura = System.nanoTime() - inicio;
+
+        System.out.printf("Sesiones con SecurityContext: %,d%n", SESIONES);
+        System.out.printf("  heap (MapSession):       %,d B/sesión%n", heapEnHeap / SESIONES);
+        System.out.printf("  off-heap: heap %,d B/sesión + %,d B/sesión fuera del heap%n",
+                heapOffHeap / SESIONES, offHeap.bytesOffHeap() / SESIONES);
+        System.out.printf("  off-heap: save %,d ns, findById %,d ns%n",
+                escritura / SESIONES, lectura / SESIONES);
+        assertThat(offHeap.findById(ultimo)).isNotNull();
+    }
+
+    private final List<String> ids = new ArrayList<>(SESIONES);
+    private String ultimo;
+
+    private void llenar(Supplier<MapSession> crear, Consumer<MapSession> guardar) {
+        for (int i = 0; i < SESIONES; i++) {
+            MapSession sesion = crear.get();
+            User user = new User("usuario" + i, "secreto", AuthorityUtils.createAuthorityList("ROLE_USER"));
+            user.eraseCredentials();
+            UsernamePasswordAuthenticationToken auth =
+                    UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+            auth.setDetails(new WebAuthenticationDetails("10.0." + (i >> 8 & 255) + "." + (i & 255), sesion.getId()));
+            sesion.setAttribute("SPRING_SECURITY_CONTEXT", new SecurityContextImpl(auth));
+            guardar.accept(sesion);
+            ids.add(sesion.getId());
+        }
+        ultimo = ids.get(ids.size() - 1);
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
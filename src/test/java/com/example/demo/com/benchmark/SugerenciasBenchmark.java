@@ -0,0 +1,119 @@
+package com.example.demo.com.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.com.search.TrieSugerencias;
+
+/**
+ * Construcción y latencia por consulta del trie de sugerencias con 100.000 nombres.
+ *
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=SugerenciasBenchmark
+ *
+ * - Nombres de 1 a 3 palabras formadas con sílabas al azar (muchos prefijos compartidos,
+ *   como en un catálogo real), algunas con tilde.
+ * - Popularidad sesgada: unos pocos nombres acaparan la mayoría de favoritos.
+ * - Consultas: prefijos de 1 a 8 letras de nombres existentes; la mitad de los de 3 o más
+ *   letras llevan una errata, para medir también la búsqueda aproximada.
+ * - Cada consulta se cronometra por separado para dar percentiles, no solo la media.
+ */
+@Tag("benchmark")
+class SugerenciasBenchmark {
+
+    private static final int NOMBRES = 100_000;
+    private static final int CONSULTAS = 200_000;
+    private static final int K = 10;
+
+    private static final String[] SILABAS = {
+            "go", "ku", "ve", "ge", "ta", "bu", "lma", "pi", "cco", "lo", "fri", "za", "ce", "ll",
+            "tru", "nks", "gha", "han", "kri", "lin", "ya", "mu", "cha", "ra", "di", "tz", "bro", "ly",
+            "zá", "mó", "ñe", "sa", "ri", "na", "to", "ki", "be", "rus", "whi", "ss", "jí", "ren"};
+
+    @Test
+    void latenciaPorConsulta() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<TrieSugerencias.Entrada> entradas = new ArrayList<>(NOMBRES);
+        for (int i = 0; i < NOMBRES; i++) {
+            entradas.add(new TrieSugerencias.Entrada(i, nombre(random), popularidad(random)));
+        }
+
+        long inicio = System.nanoTime();
+        TrieSugerencias trie = TrieSugerencias.construir(entradas, K);
+        long construccion = System.nanoTime() - inicio;
+
+        String[] consultas = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            consultas[i] = consulta(random, entradas.get(random.nextInt(NOMBRES)).nombre());
+        }
+
+        long resultados = 0;
+        for (int i = 0; i < CONSULTAS; i++) {  // calentamiento
+            resultados += trie.sugerir(consultas[i], K).size();
+        }
+        long[] latencias = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            long t0 = System.nanoTime();
+            resultados += trie.sugerir(consultas[i], K).size();
+            latencias[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(latencias);
+
+        System.out.printf("Sugerencias: %,d nombres, %,d nodos, %,d consultas%n",
+                NOMBRES, trie.nodos(), CONSULTAS);
+        System.out.printf("  construcción: %,d ms%n", construccion / 1_000_000);
+        System.out.printf("  por consulta: p50 %,d ns, p99 %,d ns, p99.9 %,d ns, máx %,d ns%n",
+                percentil(latencias, 0.50), percentil(latencias, 0.99), percentil(latencias, 0.999),
+                latencias[CONSULTAS - 1]);
+
+        assertThat(resultados).isPositive();
+        assertThat(trie.sugerir(entradas.get(0).nombre(), K)).isNotEmpty();
+    }
+
+    private static String nombre(SplittableRandom random) {
+        int palabras = 1 + random.nextInt(3);
+        StringBuilder nombre = new StringBuilder();
+        for (int p = 0; p < palabras; p++) {
+            if (p > 0) {
+                nombre.append(' ');
+            }
+            int inicioPalabra = nombre.length();
+            int silabas = 2 + random.nextInt(3);
+            for (int s = 0; s < silabas; s++) {
+                nombre.append(SILABAS[random.nextInt(SILABAS.length)]);
+            }
+            nombre.setCharAt(inicioPalabra, Character.toUpperCase(nombre.charAt(inicioPalabra)));
+        }
+        return nombre.toString();
+    }
+
+    /**
+     * Distribución sesgada (aprox. ley de potencias) entre 0 y 1.000.000 de favoritos
+     */
+    private static long popularidad(SplittableRandom random) {
+        double u = random.nextDouble();
+        return (long) (1_000_000 * u * u * u * u);
+    }
+
+    /**
+     * Prefijo del nombre; con 3 o más letras, la mitad de las veces con una letra cambiada
+     */
+    private static String consulta(SplittableRandom random, String nombre) {
+        int longitud = Math.min(nombre.length(), 1 + random.nextInt(8));
+        char[] prefijo = nombre.substring(0, longitud).toLowerCase().toCharArray();
+        if (longitud >= 3 && random.nextBoolean()) {
+            prefijo[1 + random.nextInt(longitud - 1)] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(prefijo);
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        return ordenadas[Math.min(ordenadas.length - 1, (int) (ordenadas.length * p))];
+    }
+}
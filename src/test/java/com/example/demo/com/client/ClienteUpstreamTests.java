@@ -0,0 +1,271 @@
+package com.example.demo.com.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.com.client.ClienteUpstream.UpstreamNoDisponibleException;
+import com.example.demo.com.config.UpstreamProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Cliente de la API externa contra un servidor local que inyecta fallos:
+ * errores 5xx, respuestas lentas, cuelgues y caídas.
+ */
+class ClienteUpstreamTests {
+
+    private static final String PAGINA = "{\"items\":[{\"id\":1,\"name\":\"Goku\"}],\"links\":{\"next\":\"\"}}";
+
+    /**
+     * Estado especial: 200 con el cuerpo enviado poco a poco durante 3 s
+     */
+    private static final int LENTA = -1;
+
+    private HttpServer servidor;
+    private ClienteUpstream cliente;
+
+    /**
+     * Comportamiento del servidor para la petición n (empezando en 1)
+     */
+    private volatile Comportamiento comportamiento = n -> 200;
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private final Set<Integer> puertosCliente = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch abortadas = new CountDownLatch(1);
+
+    @BeforeEach
+    void arrancarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/api/characters", this::responder);
+        servidor.start();
+    }
+
+    @AfterEach
+    void pararServidor() {
+        if (cliente != null) {
+            cliente.destroy();
+        }
+        servidor.stop(0);
+    }
+
+    @Test
+    void reintentaErrores5xxYDevuelveLaPagina() {
+        comportamiento = n -> n <= 2 ? 503 : 200;
+        cliente = cliente(properties());
+
+        Map<String, Object> pagina = cliente.obtenerPagina(url());
+
+        assertThat(pagina).containsKey("items");
+        assertThat(peticiones.get()).isEqualTo(3);
+        assertThat(cliente.reintentos()).isEqualTo(2);
+    }
+
+    @Test
+    void noReintentaErrores4xx() {
+        comportamiento = n -> 404;
+        cliente = cliente(properties());
+
+        assertThatThrownBy(() -> cliente.obtenerPagina(url()))
+                .isInstanceOf(UpstreamNoDisponibleException.class)
+                .hasMessageContaining("404");
+        assertThat(peticiones.get()).isEqualTo(1);
+    }
+
+    @Test
+    void noAbreElCircuitoPorErrores4xx() {
+        comportamiento = n -> 404;
+        UpstreamProperties properties = properties();
+        properties.getBreaker().setFailureThreshold(2);
+        cliente = cliente(properties);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> cliente.obtenerPagina(url())).hasMessageContaining("404");
+        }
+
+        assertThat(cliente.estadoCircuito()).isEqualTo(CircuitBreaker.Estado.CERRADO);
+        assertThat(peticiones.get()).isEqualTo(5);
+    }
+
+    @Test
+    void lanzaUnaPeticionDeCoberturaSiLaPrimeraSeRetrasa() throws InterruptedException {
+        comportamiento = n -> n == 1 ? LENTA : 200;
+        UpstreamProperties properties = properties();
+        properties.setRequestTimeout(Duration.ofSeconds(5));
+        properties.setHedgeDelay(Duration.ofMillis(100));
+        cliente = cliente(properties);
+
+        long inicio = System.nanoTime();
+        assertThat(cliente.obtenerPagina(url())).containsKey("items");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(2));
+        assertThat(cliente.coberturas()).isEqualTo(1);
+        assertThat(cliente.reintentos()).isZero();
+        // La perdedora se aborta de verdad: el servidor ve cerrarse la conexión antes de acabar
+        assertThat(abortadas.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void respetaElPlazoTotalAunqueLaApiSeCuelgue() {
+        comportamiento = n -> esperar(5_000);
+        UpstreamProperties properties = properties();
+        properties.setRequestTimeout(Duration.ofMillis(200));
+        properties.setDeadline(Duration.ofMillis(600));
+        cliente = cliente(properties);
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> cliente.obtenerPagina(url())).isInstanceOf(UpstreamNoDisponibleException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(1_500));
+    }
+
+    @Test
+    void elCircuitoSeAbreFallaAlInstanteYSeRecupera() throws Exception {
+        comportamiento = n -> 503;
+        UpstreamProperties properties = properties();
+        properties.setMaxRetries(0);
+        properties.getBreaker().setFailureThreshold(2);
+        properties.getBreaker().setOpenDuration(Duration.ofMillis(300));
+        cliente = cliente(properties);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> cliente.obtenerPagina(url())).isInstanceOf(UpstreamNoDisponibleException.class);
+        }
+        assertThat(cliente.estadoCircuito()).isEqualTo(CircuitBreaker.Estado.ABIERTO);
+
+        // Abierto: ni siquiera llega al servidor
+        assertThatThrownBy(() -> cliente.obtenerPagina(url())).hasMessageContaining("Circuito abierto");
+        assertThat(peticiones.get()).isEqualTo(2);
+
+        // Pasado el tiempo abierto, una petición de prueba con la API ya recuperada lo cierra
+        comportamiento = n -> 200;
+        Thread.sleep(350);
+        assertThat(cliente.estadoCircuito()).isEqualTo(CircuitBreaker.Estado.SEMIABIERTO);
+        assertThat(cliente.obtenerPagina(url())).containsKey("items");
+        assertThat(cliente.estadoCircuito()).isEqualTo(CircuitBreaker.Estado.CERRADO);
+    }
+
+    @Test
+    void unaPruebaFallidaVuelveAAbrirElCircuito() {
+        AtomicInteger reloj = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofNanos(100), reloj::get);
+
+        breaker.fallo();
+        assertThat(breaker.permitir()).isFalse();
+
+        reloj.set(100);
+        assertThat(breaker.permitir()).isTrue();
+        assertThat(breaker.permitir()).isFalse(); // solo una petición de prueba a la vez
+        breaker.fallo();
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.ABIERTO);
+
+        reloj.set(200);
+        assertThat(breaker.permitir()).isTrue();
+        breaker.exito();
+        assertThat(breaker.estado()).isEqualTo(CircuitBreaker.Estado.CERRADO);
+    }
+
+    @Test
+    void reutilizaLaConexionEntrePaginas() {
+        cliente = cliente(properties());
+
+        for (int i = 0; i < 5; i++) {
+            cliente.obtenerPagina(url());
+        }
+
+        assertThat(peticiones.get()).isEqualTo(5);
+        assertThat(puertosCliente).hasSize(1);
+    }
+
+    private ClienteUpstream cliente(UpstreamProperties properties) {
+        return new ClienteUpstream(properties, new ObjectMapper());
+    }
+
+    private UpstreamProperties properties() {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setUrl(url());
+        properties.setBackoffBase(Duration.ofMillis(10));
+        properties.setBackoffMax(Duration.ofMillis(50));
+        properties.setHedgeDelay(Duration.ZERO);
+        return properties;
+    }
+
+    private String url() {
+        return "http://localhost:" + servidor.getAddress().getPort() + "/api/characters?limit=10";
+    }
+
+    private void responder(HttpExchange intercambio) throws IOException {
+        puertosCliente.add(intercambio.getRemoteAddress().getPort());
+        int estado = comportamiento.estado(peticiones.incrementAndGet());
+        if (estado == LENTA) {
+            responderLento(intercambio);
+            return;
+        }
+        byte[] cuerpo = (estado == 200 ? PAGINA : "{\"error\":" + estado + "}").getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            intercambio.sendResponseHeaders(estado, cuerpo.length);
+            intercambio.getResponseBody().write(cuerpo);
+        } catch (IOException e) {
+            // El cliente ya se ha ido (timeout o cobertura ganadora)
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    /**
+     * Envía la página tras 3 s de relleno (espacios, JSON válido) en trozos de 50 ms;
+     * si el cliente aborta el intercambio la escritura falla y se anota
+     */
+    private void responderLento(HttpExchange intercambio) {
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            intercambio.sendResponseHeaders(200, 0);
+            for (int i = 0; i < 60; i++) {
+                intercambio.getResponseBody().write(' ');
+                intercambio.getResponseBody().flush();
+                Thread.sleep(50);
+            }
+            intercambio.getResponseBody().write(PAGINA.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            abortadas.countDown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    /**
+     * Simula una respuesta lenta y luego responde 200
+     */
+    private static int esperar(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 200;
+    }
+
+    @FunctionalInterface
+    private interface Comportamiento {
+        int estado(int peticion);
+    }
+}
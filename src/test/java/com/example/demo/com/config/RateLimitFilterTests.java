@@ -0,0 +1,99 @@
+package com.example.demo.com.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Limitador de peticiones con un reloj manual: 2 peticiones/s con ráfaga de 3.
+ */
+class RateLimitFilterTests {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), reloj::get);
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void admiteLaRafagaYDevuelve429ConRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(peticion("/buscar/nombre", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rechazada = peticion("/buscar/nombre", "10.0.0.1");
+        assertThat(rechazada.getStatus()).isEqualTo(429);
+        assertThat(rechazada.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(filter.rechazadas()).isEqualTo(1);
+
+        // Otra IP tiene su propia cubeta
+        assertThat(peticion("/buscar/nombre", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void recuperaTokensConElTiempo() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            peticion("/buscar/raza", "10.0.0.1");
+        }
+        assertThat(peticion("/buscar/raza", "10.0.0.1").getStatus()).isEqualTo(429);
+
+        reloj.addAndGet(Duration.ofMillis(500).toNanos()); // un token a 2/s
+        assertThat(peticion("/buscar/raza", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(peticion("/buscar/raza", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void usuariosAutenticadosTienenMasMargenYCubetaPropia() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "goku", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        // Ráfaga x4 = 12, aunque comparta IP con anónimos ya limitados
+        for (int i = 0; i < 12; i++) {
+            assertThat(peticion("/buscar/nombre", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(peticion("/buscar/nombre", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void rutasSinReglaNoSeLimitan() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(peticion("/css/estilos.css", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void elNumeroDeCubetasEstaAcotado() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            peticion("/buscar/nombre", "10.0." + (i / 256) + "." + (i % 256));
+        }
+        assertThat(filter.cubetasActivas()).isLessThanOrEqualTo(100);
+    }
+
+    private MockHttpServletResponse peticion(String ruta, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ruta);
+        request.setServletPath(ruta);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxKeys(100);
+        properties.setRules(List.of(new RateLimitProperties.Rule("/buscar/**", 2, 3)));
+        return properties;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.com.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.controller.PersonajeRestController;
+import com.example.demo.com.dto.PersonajeResumen;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Enrutado lectura/escritura con bases de datos H2 embebidas:
+ * cada una tiene una tabla "origen" que indica qué base de datos respondió.
+ */
+class ReplicaDataSourceTests {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaDataSource replicas;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private LocalContainerEntityManagerFactoryBean jpa;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primaria");
+        replica = h2("replica");
+
+        replicas = new ReplicaDataSource(primary, List.of(replica),
+                "select segundos from retraso", 5, 1);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+
+        jdbc = new JdbcTemplate(proxy);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(proxy);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(txManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jpa != null) {
+            jpa.destroy();
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertThat(leer(readOnly)).isEqualTo("replica");
+        assertThat(leer(readWrite)).isEqualTo("primaria");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        new JdbcTemplate(replica).update("update retraso set segundos = 30");
+        replicas.checkReplicas();
+
+        assertThat(replicas.availableReplicas()).isZero();
+        assertThat(leer(readOnly)).isEqualTo("primaria");
+
+        new JdbcTemplate(replica).update("update retraso set segundos = 0");
+        replicas.checkReplicas();
+
+        assertThat(leer(readOnly)).isEqualTo("replica");
+    }
+
+    /**
+     * El camino de la aplicación: Hibernate con JpaTransactionManager sobre el proxy perezoso
+     */
+    @Test
+    void readOnlyJpaTransactionsGoToReplica() {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+        jpa = new LocalContainerEntityManagerFactoryBean();
+        jpa.setDataSource(proxy);
+        jpa.setPersistenceUnitName("replicas");
+        jpa.setPackagesToScan(ReplicaDataSourceTests.class.getPackageName());
+        jpa.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        jpa.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        jpa.afterPropertiesSet();
+        EntityManagerFactory emf = jpa.getObject();
+
+        JpaTransactionManager txManager = new JpaTransactionManager(emf);
+        TransactionTemplate jpaReadOnly = new TransactionTemplate(txManager);
+        jpaReadOnly.setReadOnly(true);
+        TransactionTemplate jpaReadWrite = new TransactionTemplate(txManager);
+
+        assertThat(leerJpa(jpaReadOnly, emf)).isEqualTo("replica");
+        assertThat(leerJpa(jpaReadWrite, emf)).isEqualTo("primaria");
+    }
+
+    /**
+     * La aplicación completa: /personajes (sin snapshot) lee el catálogo de la réplica.
+     * Principal y réplica tienen el mismo esquema pero personajes distintos.
+     */
+    @Test
+    void catalogReadsGoToReplica() {
+        String url = "jdbc:h2:mem:%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url.formatted("catalogo-replica"), "sa", "").load().migrate();
+
+        // Sin caché de segundo nivel: su CacheManager es único por JVM y cerrar el contexto lo cerraría
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(DemoApplication.class).run(
+                "--spring.datasource.url=" + url.formatted("catalogo-primaria"),
+                "--app.datasource.read-replicas.nodes[0].url=" + url.formatted("catalogo-replica"),
+                "--app.datasource.read-replicas.nodes[0].username=sa",
+                "--app.datasource.read-replicas.nodes[0].password=",
+                "--app.datasource.read-replicas.nodes[0].driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--spring.jpa.properties.jakarta.persistence.sharedCache.mode=NONE",
+                "--app.snapshot.ruta=target/test-data/replicas.snap",
+                "--app.calentamiento.enabled=false",
+                "--app.nodos.enabled=false")) {
+            // Después de arrancar: con catálogo en la BD el arranque crearía el snapshot y se serviría de él
+            new JdbcTemplate(app.getBean(HikariDataSource.class)).update(
+                    "insert into personaje (id, name, race) values (1, 'Goku (principal)', 'Saiyan')");
+            new JdbcTemplate(new DriverManagerDataSource(url.formatted("catalogo-replica"), "sa", "")).update(
+                    "insert into personaje (id, name, race) values (1, 'Goku (réplica)', 'Saiyan')");
+
+            assertThat(app.getBean(PersonajeRestController.class).hello())
+                    .extracting(PersonajeResumen::name).containsExactly("Goku (réplica)");
+        }
+    }
+
+    @Test
+    void readsAreSpreadRoundRobinAcrossReplicas() {
+        DataSource otra = h2("replica2");
+        replicas = new ReplicaDataSource(primary, List.of(replica, otra),
+                "select segundos from retraso", 5, 1);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+        jdbc = new JdbcTemplate(proxy);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        readOnly.setReadOnly(true);
+
+        List<String> origenes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            origenes.add(leer(readOnly));
+        }
+        assertThat(origenes).containsExactly("replica", "replica2", "replica", "replica2");
+
+        // Con una réplica retrasada, todo va a la otra
+        new JdbcTemplate(otra).update("update retraso set segundos = 30");
+        replicas.checkReplicas();
+        assertThat(replicas.availableReplicas()).isEqualTo(1);
+        assertThat(List.of(leer(readOnly), leer(readOnly), leer(readOnly))).containsOnly("replica");
+    }
+
+    @Test
+    void credentialsArePassedToTheChosenDataSource() throws Exception {
+        try (Connection con = replicas.getConnection("sa", "");
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("select nombre from origen")) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getString(1)).isEqualTo("replica");
+        }
+    }
+
+    private String leerJpa(TransactionTemplate tx, EntityManagerFactory emf) {
+        return tx.execute(status -> (String) EntityManagerFactoryUtils.getTransactionalEntityManager(emf)
+                .createNativeQuery("select nombre from origen").getSingleResult());
+    }
+
+    private String leer(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("select nombre from origen", String.class));
+    }
+
+    private static DataSource h2(String nombre) {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("drop all objects");
+        jdbc.execute("create table origen (nombre varchar(20))");
+        jdbc.update("insert into origen values (?)", nombre);
+        jdbc.execute("create table retraso (segundos bigint)");
+        jdbc.update("insert into retraso values (0)");
+        return ds;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.com.controller;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+
+/**
+ * Serializa de verdad las respuestas JSON: con open-in-view desactivado, devolver una entidad
+ * con colecciones lazy falla al escribir la respuesta, después de cerrar la transacción.
+ */
+@SpringBootTest(classes = DemoApplication.class)
+@AutoConfigureMockMvc
+class PersonajeRestControllerTests {
+
+    private static final String RAZA = "Namekian-mvc";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @BeforeEach
+    void datos() {
+        if (personajeRepository.findResumenesMasFuertes(RAZA, Limit.of(1)).isEmpty()) {
+            personajeRepository.save(new Personaje(null, "Piccolo mvc", "4.000.000", "3 Billion", RAZA, "Male",
+                    "Guerrero namekiano", "piccolo.webp", "Z Fighter", null));
+            personajeRepository.save(new Personaje(null, "Nail mvc", "3.000.000", "1 Billion", RAZA, "Male",
+                    "Guerrero de Guru", "nail.webp", "Army of Frieza", null));
+        }
+    }
+
+    @Test
+    void buscarPorKiDevuelveResumenes() throws Exception {
+        mockMvc.perform(get("/buscar/ki").param("min", "3000000").param("max", "4000000").param("limite", "200")
+                        .with(user("goku")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.race == '" + RAZA + "')].name", contains("Nail mvc", "Piccolo mvc")))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].usuarios").doesNotExist());
+    }
+
+    @Test
+    void detalleIncluyeLaDescripcionSinRelaciones() throws Exception {
+        Long id = personajeRepository.findResumenesMasFuertes(RAZA, Limit.of(1)).get(0).id();
+        mockMvc.perform(get("/personajes/{id}", id).with(user("goku")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Piccolo mvc"))
+                .andExpect(jsonPath("$.description").value("Guerrero namekiano"))
+                .andExpect(jsonPath("$.usuarios").doesNotExist());
+        mockMvc.perform(get("/personajes/{id}", Long.MAX_VALUE).with(user("goku")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void busquedasPorNombreYRazaDevuelvenResumenes() throws Exception {
+        mockMvc.perform(get("/buscar/nombre").param("nombre", "PICCOLO MVC").with(user("goku")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Piccolo mvc")));
+        mockMvc.perform(get("/buscar/raza").param("race", "namekian-MVC").with(user("goku")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Piccolo mvc", "Nail mvc")))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void masFuertesDevuelveResumenes() throws Exception {
+        mockMvc.perform(get("/buscar/mas-fuertes").param("race", RAZA).with(user("goku")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Piccolo mvc", "Nail mvc")))
+                .andExpect(jsonPath("$[0].maxKi").value("3 Billion"));
+    }
+
+    @Test
+    void busquedaDeTextoRechazaPaginasFueraDeRango() throws Exception {
+        mockMvc.perform(get("/buscar/texto").param("q", "goku").param("pagina", "2000000000").param("tamano", "50")
+                        .with(user("goku")))
+                .andExpect(status().isBadRequest());
+        // Más allá del último resultado pero sin desbordar: página vacía
+        mockMvc.perform(get("/buscar/texto").param("q", "goku").param("pagina", "40000000").param("tamano", "50")
+                        .with(user("goku")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido").isEmpty())
+                .andExpect(jsonPath("$.pagina").value(40000000));
+    }
+}
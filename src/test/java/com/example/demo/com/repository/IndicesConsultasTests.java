@@ -0,0 +1,80 @@
+package com.example.demo.com.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.com.DemoApplication;
+
+/**
+ * Comprueba con EXPLAIN (H2) que las consultas más frecuentes usan los índices
+ * creados por las migraciones en lugar de recorrer la tabla completa.
+ */
+@SpringBootTest(classes = DemoApplication.class)
+@Transactional
+class IndicesConsultasTests {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void datos() {
+        // Dentro de la transacción del test: se deshace al terminar y no queda nada en la BD compartida
+        for (int i = 0; i < 50; i++) {
+            jdbc.update("insert into usuarios (username, password) values (?, 'x')", "explain-" + i);
+            jdbc.update("insert into personaje (name, race, affiliation, ki_valor, max_ki_valor) values (?, ?, ?, ?, ?)",
+                    "explain-personaje-" + i, i % 2 == 0 ? "Saiyan" : "Human", i % 3 == 0 ? "Z Fighter" : "Villain",
+                    i * 1000d, i * 1e9);
+        }
+    }
+
+    @Test
+    void busquedaPorUsernameUsaIndiceUnico() {
+        assertThat(explain("select id, username, password from usuarios where username = 'explain-7'"))
+                .contains("uk_usuarios_username")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void filtrosDeCatalogoUsanIndices() {
+        assertThat(explain("select id from personaje where race = 'Saiyan'"))
+                .contains("idx_personaje_race");
+        assertThat(explain("select id from personaje where affiliation = 'Z Fighter'"))
+                .contains("idx_personaje_affiliation");
+    }
+
+    @Test
+    void consultasDeKiUsanIndices() {
+        assertThat(explain("select id from personaje where ki_valor between 1000 and 1000000 order by ki_valor"))
+                .contains("idx_personaje_ki_valor");
+        assertThat(explain("select id from personaje where race = 'Saiyan' and max_ki_valor is not null "
+                + "order by max_ki_valor desc limit 5"))
+                .contains("idx_personaje_race_max_ki_valor");
+    }
+
+    @Test
+    void joinDeFavoritosUsaIndices() {
+        String plan = explain("""
+                select p.id, p.name
+                from usuarios u
+                join usuario_favoritos f on f.usuario_id = u.id
+                join personaje p on p.id = f.personaje_id
+                where u.username = 'explain-7'
+                """);
+
+        assertThat(plan)
+                .contains("uk_usuarios_username")
+                // H2 nombra el índice de la clave primaria como PRIMARY_KEY_n
+                .containsPattern("public\\.\\w+: usuario_id = u\\.id")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbc.queryForList("explain " + sql, String.class));
+    }
+}
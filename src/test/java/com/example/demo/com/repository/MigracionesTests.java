@@ -0,0 +1,116 @@
+package com.example.demo.com.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Actualización de una BD anterior a Flyway: esquema creado por Hibernate (ddl-auto=update),
+ * baseline en la versión 1 y el resto de migraciones encima, como en producción.
+ * Sin contexto de Spring: cada test usa su propia BD en memoria.
+ */
+class MigracionesTests {
+
+    private static int bd;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void bdNueva() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:legado" + (++bd) + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void esquemaDeHibernateConClavePrimaria() {
+        // Lo que genera Hibernate 6 para las entidades antes de Flyway: Set -> clave primaria compuesta
+        esquemaHibernate("primary key (usuario_id, personaje_id)");
+        jdbc.update("insert into personaje (name, ki, max_ki, race) values ('Goku', '60.000.000', '90 Septillion', 'Saiyan')");
+        jdbc.update("insert into usuarios (username, password) values ('goku', 'a'), ('vegeta', 'c')");
+        jdbc.update("insert into usuario_favoritos (usuario_id, personaje_id) values (1, 1), (2, 1)");
+
+        MigrateResult resultado = migrar();
+
+        assertThat(resultado.success).isTrue();
+        assertThat(jdbc.queryForList("select username from usuarios order by id", String.class))
+                .containsExactly("goku", "vegeta");
+        assertThat(jdbc.queryForObject("select count(*) from usuario_favoritos", Integer.class)).isEqualTo(2);
+        assertThat(jdbc.queryForObject("select ki_valor from personaje where id = 1", Double.class)).isEqualTo(6.0e7);
+        assertThatThrownBy(() -> jdbc.update("insert into usuarios (username, password) values ('vegeta', 'x')"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbc.update("insert into usuario_favoritos (usuario_id, personaje_id) values (1, 1)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void usuariosRepetidosDetienenLaMigracionSinTocarlos() {
+        esquemaHibernate("primary key (usuario_id, personaje_id)");
+        jdbc.update("insert into usuarios (username, password) values ('goku', 'a'), ('goku', 'b'), ('vegeta', 'c')");
+
+        assertThatThrownBy(this::migrar)
+                .isInstanceOf(FlywayException.class)
+                .hasStackTraceContaining("goku=[1, 2]");
+        assertThat(jdbc.queryForList("select username from usuarios order by id", String.class))
+                .containsExactly("goku", "goku", "vegeta");
+    }
+
+    @Test
+    void esquemaSinClavePrimariaConFavoritosRepetidos() {
+        esquemaHibernate(null);
+        jdbc.update("insert into personaje (name) values ('Goku'), ('Vegeta')");
+        jdbc.update("insert into usuarios (username, password) values ('bulma', 'a')");
+        jdbc.update("insert into usuario_favoritos (usuario_id, personaje_id) values (1, 1), (1, 1), (1, 2)");
+
+        assertThat(migrar().success).isTrue();
+        assertThat(jdbc.queryForList("select personaje_id from usuario_favoritos order by personaje_id", Long.class))
+                .containsExactly(1L, 2L);
+        assertThatThrownBy(() -> jdbc.update("insert into usuario_favoritos (usuario_id, personaje_id) values (1, 2)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void bdNuevaDesdeCero() {
+        assertThat(migrar().success).isTrue();
+        assertThat(jdbc.queryForList("select username from usuarios", String.class)).isEmpty();
+    }
+
+    private MigrateResult migrar() {
+        // Misma configuración que application.properties (spring.flyway.baseline-*)
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private void esquemaHibernate(String clavePrimariaFavoritos) {
+        jdbc.execute("""
+                create table personaje (id bigint not null auto_increment, affiliation varchar(255),
+                    deleted_at varchar(255), description varchar(1000), gender varchar(255), image varchar(255),
+                    ki varchar(255), max_ki varchar(255), name varchar(255), race varchar(255), primary key (id))
+                """);
+        jdbc.execute("""
+                create table usuarios (id bigint not null auto_increment, password varchar(255) not null,
+                    username varchar(255), primary key (id))
+                """);
+        jdbc.execute("create table usuario_favoritos (usuario_id bigint not null, personaje_id bigint not null"
+                + (clavePrimariaFavoritos != null ? ", " + clavePrimariaFavoritos : "") + ")");
+        jdbc.execute("alter table usuario_favoritos add constraint fk_fav_personaje foreign key (personaje_id) "
+                + "references personaje (id)");
+        jdbc.execute("alter table usuario_favoritos add constraint fk_fav_usuario foreign key (usuario_id) "
+                + "references usuarios (id)");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.com.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CoFavoritosTests {
+
+    private final CoFavoritos coFavoritos = new CoFavoritos(2);
+
+    @Test
+    void vecinosOrdenadosPorUsuariosCompartidos() {
+        coFavoritos.agregarUsuario(new long[] {1, 2, 3});
+        coFavoritos.agregarUsuario(new long[] {1, 3});
+        coFavoritos.agregarUsuario(new long[] {1, 3, 4});
+
+        assertThat(ids(1)).containsExactly(3L, 2L);
+        assertThat(coFavoritos.vecinos(1).get(0).usuarios()).isEqualTo(3);
+        assertThat(ids(4)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void actualizacionIncrementalIgualQueReconstruir() {
+        // Usuario con {1, 2} que añade el 3 y luego el 4; otro con {1, 4}
+        coFavoritos.agregarUsuario(new long[] {1, 2});
+        coFavoritos.actualizar(3, new long[] {1, 2}, true);
+        coFavoritos.actualizar(4, new long[] {1, 2, 3}, true);
+        coFavoritos.actualizar(4, new long[] {1}, true);
+
+        CoFavoritos esperado = new CoFavoritos(2);
+        esperado.agregarUsuario(new long[] {1, 2, 3, 4});
+        esperado.agregarUsuario(new long[] {1, 4});
+
+        assertThat(coFavoritos.pares()).isEqualTo(esperado.pares());
+        for (long id = 1; id <= 4; id++) {
+            assertThat(coFavoritos.vecinos(id)).isEqualTo(esperado.vecinos(id));
+        }
+        assertThat(ids(4)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void quitarFavoritoRecalculaElTop() {
+        coFavoritos.agregarUsuario(new long[] {1, 2});
+        coFavoritos.agregarUsuario(new long[] {1, 2});
+        coFavoritos.agregarUsuario(new long[] {1, 3});
+        coFavoritos.agregarUsuario(new long[] {1, 4});
+        assertThat(ids(1)).containsExactly(2L, 3L);
+
+        // Los dos usuarios quitan el 2: entra el 4, que no estaba en el top
+        coFavoritos.actualizar(2, new long[] {1}, false);
+        coFavoritos.actualizar(2, new long[] {1}, false);
+
+        assertThat(ids(1)).containsExactly(3L, 4L);
+        assertThat(coFavoritos.vecinos(2)).isEmpty();
+        assertThat(coFavoritos.pares()).isEqualTo(4);
+    }
+
+    @Test
+    void soportaMuchosVecinosYBorrados() {
+        long[] todos = new long[500];
+        for (int i = 0; i < todos.length; i++) {
+            todos[i] = i + 1;
+        }
+        coFavoritos.agregarUsuario(todos);
+        for (int i = 2; i <= 500; i += 2) {
+            coFavoritos.actualizar(i, new long[] {1}, false);
+        }
+        assertThat(ids(1)).containsExactly(3L, 5L);
+        assertThat(coFavoritos.vecinos(1)).allMatch(v -> v.usuarios() == 1);
+        assertThat(coFavoritos.pares()).isEqualTo(500L * 499 - 2 * 250);
+    }
+
+    private List<Long> ids(long personajeId) {
+        return coFavoritos.vecinos(personajeId).stream().map(CoFavoritos.Vecino::personajeId).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.com.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IndiceTextoTests {
+
+    private IndiceTexto indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTexto(3.0, 1.0);
+        indice.indexar(1, "Goku", "El protagonista, un guerrero Saiyajin criado en la Tierra.");
+        indice.indexar(2, "Vegeta", "Príncipe de los Saiyajines y rival de Goku.");
+        indice.indexar(3, "Krillin", "Mejor amigo de Goku, guerrero humano.");
+    }
+
+    @Test
+    void coincidenciaEnElNombrePuntuaMas() {
+        IndiceTexto.Pagina pagina = indice.buscar(Analizador.terminos("goku"), 0, 10);
+
+        assertThat(pagina.total()).isEqualTo(3);
+        assertThat(pagina.resultados().get(0).id()).isEqualTo(1);
+    }
+
+    @Test
+    void stemmingYAcentos() {
+        assertThat(ids("saiyajines principe")).containsExactly(2L, 1L);
+        assertThat(ids("guerreros")).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void reindexarSustituyeElDocumento() {
+        indice.indexar(3, "Krillin", "Monje del templo Orin.");
+
+        assertThat(ids("guerrero")).containsExactly(1L);
+        assertThat(ids("templo")).containsExactly(3L);
+    }
+
+    @Test
+    void fragmentoResaltaLosTerminos() {
+        String fragmento = Resaltador.fragmento("Príncipe de los Saiyajines y rival de Goku.",
+                Analizador.terminos("saiyajin"), 160);
+
+        assertThat(fragmento).contains("<mark>Saiyajines</mark>");
+    }
+
+    private List<Long> ids(String consulta) {
+        return indice.buscar(Analizador.terminos(consulta), 0, 10).resultados().stream()
+                .map(IndiceTexto.Resultado::id)
+                .toList();
+    }
+}
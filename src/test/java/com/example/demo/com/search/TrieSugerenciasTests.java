@@ -0,0 +1,48 @@
+package com.example.demo.com.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TrieSugerenciasTests {
+
+    private final TrieSugerencias trie = TrieSugerencias.construir(List.of(
+            new TrieSugerencias.Entrada(1, "Goku", 50),
+            new TrieSugerencias.Entrada(2, "Gohan", 80),
+            new TrieSugerencias.Entrada(3, "Son Goten", 10),
+            new TrieSugerencias.Entrada(4, "Freezer", 30),
+            new TrieSugerencias.Entrada(5, "Piccolo Jr.", 5),
+            new TrieSugerencias.Entrada(6, "Androide 18", 20)), 10);
+
+    @Test
+    void prefijoOrdenadoPorPopularidad() {
+        assertThat(ids("go")).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void encuentraPalabrasInternasYSinAcentos() {
+        assertThat(ids("goté")).containsExactly(3L);
+        assertThat(ids("18")).containsExactly(6L);
+    }
+
+    @Test
+    void toleraUnaErrata() {
+        // sustitución, letra de más, letra de menos y transposición
+        assertThat(ids("frie")).containsExactly(4L);
+        assertThat(ids("piccco")).containsExactly(5L);
+        assertThat(ids("frezer")).containsExactly(4L);
+        assertThat(ids("gkou")).contains(1L);
+    }
+
+    @Test
+    void coincidenciasExactasAntesQueAproximadas() {
+        // "gok" es prefijo exacto de Goku; Gohan solo está a una sustitución
+        assertThat(ids("gok")).startsWith(1L).contains(2L);
+    }
+
+    private List<Long> ids(String prefijo) {
+        return trie.sugerir(prefijo, 10).stream().map(TrieSugerencias.Entrada::id).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+
+/**
+ * Calentamiento con las páginas de producción (10) y el limitador de peticiones activo, como en
+ * un arranque real.
+ *
+ * El contexto está aislado de los demás tests: BD H2 propia, snapshot en un directorio temporal
+ * y CacheManager de Ehcache propio. Si no, la caché de consultas (un CacheManager por JVM) y los
+ * datos escritos por otros tests con JdbcTemplate harían que el resultado dependa del orden.
+ */
+@SpringBootTest(classes = DemoApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.calentamiento.paginas=10",
+                "spring.datasource.url=jdbc:h2:mem:calentamiento;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+        })
+@Import(CalentamientoServiceTests.CacheAislada.class)
+@DirtiesContext
+@ExtendWith(OutputCaptureExtension.class)
+class CalentamientoServiceTests {
+
+    @TempDir
+    static Path directorio;
+
+    @DynamicPropertySource
+    static void snapshotPropio(DynamicPropertyRegistry registry) {
+        registry.add("app.snapshot.ruta", () -> directorio.resolve("catalogo.snap").toString());
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CacheAislada {
+
+        /**
+         * Misma configuración (ehcache.xml) pero otro CacheManager: JCache los identifica por URI
+         * y ClassLoader, así que basta un ClassLoader propio
+         */
+        @Bean(destroyMethod = "close")
+        CacheManager cacheManagerCalentamiento() throws URISyntaxException {
+            ClassLoader propio = new URLClassLoader(new URL[0], CalentamientoServiceTests.class.getClassLoader());
+            return Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                    .getCacheManager(CalentamientoServiceTests.class.getResource("/ehcache.xml").toURI(), propio);
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer cacheManagerPropio(CacheManager cacheManagerCalentamiento) {
+            return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerCalentamiento);
+        }
+    }
+
+    @Autowired
+    private CalentamientoService calentamiento;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Test
+    void readinessEsperaAlCalentamiento() {
+        // El contexto de test ya ha pasado a ACCEPTING_TRAFFIC: el calentamiento se ha ejecutado
+        assertThat(calentamiento.completado()).isTrue();
+        assertThat(calentamiento.duraciones()).containsKeys("pool", "catalogo", "total");
+        assertThat(healthEndpoint.healthForPath("readiness").getStatus()).isEqualTo(Status.UP);
+        assertThat(healthEndpoint.healthForPath("readiness", "calentamiento").getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void conCatalogoSeEjecutanTodosLosPasosSinErrores(CapturedOutput salida) {
+        personajeRepository.save(new Personaje(null, "Goku", "60.000.000", "90 Septillion", "Saiyan", "Male",
+                "El protagonista", "goku.webp", "Z Fighter", null));
+        personajeRepository.save(new Personaje(null, "Vegeta", "54.000.000", "19.84 Septillion", "Saiyan", "Male",
+                "Príncipe de los Saiyans", "vegeta.webp", "Z Fighter", null));
+        personajeRepository.save(new Personaje(null, "Bulma", "0", "0", "Human", "Female",
+                "Científica de Capsule Corp", "bulma.webp", "Z Fighter", null));
+
+        calentamiento.calentar(puerto);
+
+        assertThat(calentamiento.duraciones()).containsKeys("pool", "catalogo", "paginas", "sinteticas", "total");
+        assertThat(calentamiento.pasosFallidos()).isEmpty();
+        assertThat(salida.getAll()).doesNotContain("Paso de calentamiento");
+    }
+
+    @Test
+    void laSondaPublicaNoMuestraDetalles() throws Exception {
+        HttpResponse<String> respuesta = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/actuator/health/readiness")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(respuesta.statusCode()).isEqualTo(200);
+        assertThat(respuesta.body()).contains("\"UP\"").doesNotContain("duracionesMs", "components");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+
+@SpringBootTest(classes = DemoApplication.class)
+class CatalogoCacheServiceTests {
+
+    @Autowired
+    private PersonajeService personajeService;
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @Autowired
+    private CatalogoCacheService catalogoCacheService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByIdSeSirveDesdeLaCache() {
+        Long id = personajeRepository.save(new Personaje(null, "Goku", "60.000.000", "90 Septillion",
+                "Saiyan", "Male", "El protagonista", "goku.webp", "Z Fighter", null)).getId();
+        catalogoCacheService.invalidar();
+
+        personajeService.obtenerPorId(id);
+        long hitsAntes = (long) ((Map<String, Object>) catalogoCacheService.estadisticas().get("personaje")).get("hits");
+        personajeService.obtenerPorId(id);
+        long hitsDespues = (long) ((Map<String, Object>) catalogoCacheService.estadisticas().get("personaje")).get("hits");
+
+        assertThat(hitsDespues).isEqualTo(hitsAntes + 1);
+    }
+}
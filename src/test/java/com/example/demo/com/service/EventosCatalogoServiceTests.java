@@ -0,0 +1,180 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.com.event.PopularidadCambiadaEvent;
+
+/**
+ * Difusión, reanudación con Last-Event-ID y desbordamiento del anillo, con canales en memoria
+ * en lugar de conexiones HTTP (anillo de 4 eventos).
+ */
+class EventosCatalogoServiceTests {
+
+    private final EventosCatalogoService service = new EventosCatalogoService(null, 4, Duration.ofMinutes(1), 100);
+
+    @AfterEach
+    void cerrar() {
+        service.cerrar();
+    }
+
+    @Test
+    void sinLastEventIdSoloRecibeLosEventosNuevos() {
+        service.onPopularidadCambiada(new PopularidadCambiadaEvent(1L, 1));
+        Registro cliente = new Registro();
+        service.suscribir(cliente, null);
+
+        service.onPopularidadCambiada(new PopularidadCambiadaEvent(1L, 2));
+
+        esperarHasta(() -> cliente.eventos.size() == 1);
+        assertThat(cliente.eventos.get(0).tipo()).isEqualTo(EventosCatalogoService.POPULARIDAD);
+        assertThat(cliente.eventos.get(0).datos()).isEqualTo(new PopularidadCambiadaEvent(1L, 2));
+    }
+
+    @Test
+    void reanudaDesdeElUltimoEventoRecibido() {
+        Registro primero = new Registro();
+        service.suscribir(primero, null);
+        for (long total = 1; total <= 3; total++) {
+            service.onPopularidadCambiada(new PopularidadCambiadaEvent(7L, total));
+        }
+        esperarHasta(() -> primero.eventos.size() == 3);
+
+        // Reconecta habiendo recibido solo el primero: recibe los dos que faltan, en orden
+        Registro reconectado = new Registro();
+        service.suscribir(reconectado, primero.eventos.get(0).id());
+
+        esperarHasta(() -> reconectado.eventos.size() == 2);
+        assertThat(reconectado.eventos).extracting(Enviado::id)
+                .containsExactly(primero.eventos.get(1).id(), primero.eventos.get(2).id());
+    }
+
+    @Test
+    void sinElEventoEnElAnilloPideRecargar() {
+        Registro primero = new Registro();
+        service.suscribir(primero, null);
+        for (int total = 1; total <= 6; total++) {
+            service.onPopularidadCambiada(new PopularidadCambiadaEvent(7L, total));
+            int recibidos = total;
+            esperarHasta(() -> primero.eventos.size() == recibidos); // al día: sin reinicio propio
+        }
+
+        // El evento 1 ya se ha sobrescrito (anillo de 4): reinicio y a partir de ahí lo nuevo
+        Registro atrasado = new Registro();
+        service.suscribir(atrasado, primero.eventos.get(0).id());
+        // Un ID de otro arranque del nodo tampoco se puede reanudar
+        Registro otroArranque = new Registro();
+        service.suscribir(otroArranque, "abc-3");
+        service.onPopularidadCambiada(new PopularidadCambiadaEvent(7L, 7));
+
+        for (Registro cliente : List.of(atrasado, otroArranque)) {
+            esperarHasta(() -> cliente.eventos.size() == 2);
+            assertThat(cliente.eventos).extracting(Enviado::tipo)
+                    .containsExactly(EventosCatalogoService.REINICIO, EventosCatalogoService.POPULARIDAD);
+        }
+    }
+
+    @Test
+    void unClienteLentoNoRetrasaALosDemas() throws Exception {
+        CountDownLatch desbloquear = new CountDownLatch(1);
+        Registro lento = new Registro() {
+            @Override
+            public void enviar(String id, String tipo, Object datos) throws IOException {
+                try {
+                    desbloquear.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.enviar(id, tipo, datos);
+            }
+        };
+        Registro rapido = new Registro();
+        service.suscribir(lento, null);
+        service.suscribir(rapido, null);
+
+        long inicio = System.nanoTime();
+        for (long total = 1; total <= 3; total++) {
+            service.onPopularidadCambiada(new PopularidadCambiadaEvent(9L, total));
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(500));
+
+        esperarHasta(() -> rapido.eventos.size() == 3);
+        assertThat(lento.eventos).isEmpty();
+
+        desbloquear.countDown();
+        esperarHasta(() -> lento.eventos.size() == 3);
+    }
+
+    @Test
+    void losClientesDesconectadosSeEliminan() {
+        Registro caido = new Registro() {
+            @Override
+            public void enviar(String id, String tipo, Object datos) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        service.suscribir(caido, null);
+        service.suscribir(new Registro(), null);
+        assertThat(service.suscriptores()).isEqualTo(2);
+
+        service.onPopularidadCambiada(new PopularidadCambiadaEvent(1L, 1));
+
+        esperarHasta(() -> service.suscriptores() == 1);
+        assertThat(caido.cerrado).isTrue();
+    }
+
+    @Test
+    void elLatidoLlegaATodos() {
+        Registro cliente = new Registro();
+        service.suscribir(cliente, null);
+
+        service.latir();
+
+        esperarHasta(() -> cliente.latidos == 1);
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            if (System.nanoTime() > limite) {
+                fail("La condición no se cumplió en 5 s");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    record Enviado(String id, String tipo, Object datos) {
+    }
+
+    private static class Registro implements EventosCatalogoService.Canal {
+        final List<Enviado> eventos = new CopyOnWriteArrayList<>();
+        volatile int latidos;
+        volatile boolean cerrado;
+
+        @Override
+        public void enviar(String id, String tipo, Object datos) throws IOException {
+            eventos.add(new Enviado(id, tipo, datos));
+        }
+
+        @Override
+        public void latido() {
+            latidos++;
+        }
+
+        @Override
+        public void cerrar() {
+            cerrado = true;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.dto.FavoritosPorPersonaje;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.model.Usuario;
+import com.example.demo.com.repository.PersonajePopularidadRepository;
+import com.example.demo.com.repository.PersonajeRepository;
+
+@SpringBootTest(classes = DemoApplication.class)
+class PopularidadServiceTests {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PopularidadService popularidadService;
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @Autowired
+    private PersonajePopularidadRepository popularidadRepository;
+
+    @Test
+    void losCambiosDeFavoritosActualizanRankingYSeVuelcan() {
+        Long vegeta = personajeRepository.save(new Personaje(null, "Vegeta", "54.000.000", "19.84 Septillion",
+                "Saiyan", "Male", "Príncipe Saiyajin", "vegeta.webp", "Z Fighter", null)).getId();
+        for (String nombre : new String[] {"fan-1", "fan-2", "fan-3"}) {
+            usuarioService.registrarUsuario(usuario(nombre));
+            usuarioService.agregarFavorito(nombre, vegeta);
+        }
+        // Añadir dos veces el mismo favorito no cuenta doble
+        usuarioService.agregarFavorito("fan-1", vegeta);
+        usuarioService.eliminarFavorito("fan-3", vegeta);
+
+        assertThat(popularidadService.total(vegeta)).isEqualTo(2);
+        assertThat(popularidadService.top(1)).containsExactly(new FavoritosPorPersonaje(vegeta, 2));
+
+        popularidadService.volcar();
+        assertThat(popularidadRepository.findById(vegeta)).hasValueSatisfying(p -> assertThat(p.getTotal()).isEqualTo(2));
+
+        // La reconstrucción desde usuario_favoritos da el mismo resultado
+        popularidadService.reconstruir();
+        assertThat(popularidadService.total(vegeta)).isEqualTo(2);
+    }
+
+    @Test
+    void unPersonajeSinFavoritosNoEntraEnElRanking() {
+        Long nappa = personajeRepository.save(new Personaje(null, "Nappa", "4.000", "4.000", "Saiyan", "Male",
+                "Guerrero saiyan", "nappa.webp", "Army of Frieza", null)).getId();
+        Long raditz = personajeRepository.save(new Personaje(null, "Raditz", "1.500", "1.500", "Saiyan", "Male",
+                "Hermano de Goku", "raditz.webp", "Army of Frieza", null)).getId();
+        usuarioService.registrarUsuario(usuario("fan-raditz"));
+        usuarioService.agregarFavorito("fan-raditz", raditz);
+
+        popularidadService.reconstruir();
+        assertThat(popularidadService.top(10_000)).extracting(FavoritosPorPersonaje::personajeId)
+                .contains(raditz).doesNotContain(nappa);
+
+        // Al quitar el último favorito sale del ranking
+        usuarioService.eliminarFavorito("fan-raditz", raditz);
+        assertThat(popularidadService.total(raditz)).isZero();
+        assertThat(popularidadService.top(10_000)).extracting(FavoritosPorPersonaje::personajeId)
+                .doesNotContain(raditz, nappa);
+    }
+
+    private static Usuario usuario(String username) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setPassword("secreto");
+        return usuario;
+    }
+}
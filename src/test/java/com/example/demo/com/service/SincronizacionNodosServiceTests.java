@@ -0,0 +1,260 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.dto.Recomendacion;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.model.Usuario;
+
+/**
+ * Dos nodos (dos contextos de aplicación) contra la misma base de datos embebida:
+ * los cambios de uno llegan a las cachés locales del otro a través del registro de cambios.
+ * El sondeo se lanza a mano (intervalo de una hora) para que el test sea determinista.
+ *
+ * Los nodos no usan la caché de segundo nivel: el CacheManager de Ehcache es único por JVM
+ * y cerrar un contexto lo cerraría también para los demás (incluido el de los otros tests).
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SincronizacionNodosServiceTests {
+
+    private static final Duration ASENTAMIENTO = Duration.ofSeconds(1);
+
+    private static ConfigurableApplicationContext nodoA;
+    private static ConfigurableApplicationContext nodoB;
+
+    @TempDir
+    static Path directorio;
+
+    @BeforeAll
+    static void arrancarNodos() {
+        nodoA = nodo("a");
+        nodoB = nodo("b");
+    }
+
+    @AfterAll
+    static void pararNodos() {
+        nodoB.close();
+        nodoA.close();
+    }
+
+    @Test
+    @Order(1)
+    void losCambiosDeUnNodoLleganAlOtro() throws Exception {
+        // 1. Sincronización del catálogo en A: B no la ve hasta que sondea
+        JdbcTemplate jdbc = nodoA.getBean(JdbcTemplate.class);
+        jdbc.update("insert into personaje (id, name, race, description) values (1, 'Goku', 'Saiyan', 'El protagonista')");
+        jdbc.update("insert into personaje (id, name, race, description) values (2, 'Vegeta', 'Saiyan', 'Príncipe saiyan')");
+        jdbc.update("insert into personaje (id, name, race, description) values (3, 'Krilin', 'Human', 'Mejor amigo')");
+        nodoA.publishEvent(new CatalogoActualizadoEvent(List.of(1L, 2L, 3L)));
+
+        assertThat(busqueda(nodoA, "goku")).isEqualTo(1);
+        assertThat(busqueda(nodoB, "goku")).isZero();
+
+        sincronizar(nodoB);
+        assertThat(busqueda(nodoB, "goku")).isEqualTo(1);
+        assertThat(nodoB.getBean(SincronizacionNodosService.class).versionLocal()).isEqualTo(1);
+
+        // 2. Favoritos en A: contadores y recomendaciones de B se ponen al día
+        UsuarioService usuariosA = nodoA.getBean(UsuarioService.class);
+        Usuario usuario = new Usuario();
+        usuario.setUsername("bulma");
+        usuario.setPassword("capsule");
+        usuariosA.registrarUsuario(usuario);
+        usuariosA.agregarFavorito("bulma", 1L);
+        usuariosA.agregarFavorito("bulma", 2L);
+
+        assertThat(popularidad(nodoB, 1L)).isZero();
+        sincronizar(nodoB);
+        assertThat(popularidad(nodoB, 1L)).isEqualTo(1);
+        assertThat(popularidad(nodoB, 2L)).isEqualTo(1);
+        assertThat(nodoB.getBean(RecomendacionService.class).recomendados(1L, 5))
+                .extracting(Recomendacion::id).containsExactly(2L);
+
+        // A no vuelve a aplicar sus propios cambios
+        sincronizar(nodoA);
+        assertThat(popularidad(nodoA, 1L)).isEqualTo(1);
+        assertThat(nodoA.getBean(SincronizacionNodosService.class).versionLocal()).isEqualTo(3);
+
+        // 3. Y en sentido contrario
+        nodoB.getBean(UsuarioService.class).eliminarFavorito("bulma", 2L);
+        sincronizar(nodoA);
+        assertThat(popularidad(nodoA, 2L)).isZero();
+
+        // 4. Si el registro ya se purgó, el nodo atrasado reconstruye desde la BD
+        usuariosA.eliminarFavorito("bulma", 1L);
+        usuariosA.agregarFavorito("bulma", 3L);
+        jdbc.update("delete from catalogo_cambio where version < 6");
+        sincronizar(nodoB);
+        Thread.sleep(ASENTAMIENTO.toMillis() + 100); // hasta que los huecos 4 y 5 dejan de esperarse
+        sincronizar(nodoB);
+        assertThat(popularidad(nodoB, 1L)).isZero();
+        assertThat(nodoB.getBean(RecomendacionService.class).recomendados(1L, 5)).isEmpty();
+        assertThat(nodoB.getBean(SincronizacionNodosService.class).versionLocal()).isEqualTo(6);
+    }
+
+    @Test
+    @Order(2)
+    void cambiarUnFavoritoNoBloqueaLosDeOtrosUsuarios() throws Exception {
+        JdbcTemplate jdbc = nodoA.getBean(JdbcTemplate.class);
+        jdbc.update("insert into personaje (id, name, race) values (20, 'Piccolo', 'Namekian')");
+        UsuarioService usuariosA = nodoA.getBean(UsuarioService.class);
+        for (String nombre : List.of("chichi", "gohan")) {
+            Usuario usuario = new Usuario();
+            usuario.setUsername(nombre);
+            usuario.setPassword("paoz");
+            usuariosA.registrarUsuario(usuario);
+        }
+
+        // Un favorito ya apuntado en el registro (BEFORE_COMMIT) pero aún sin confirmar...
+        TransactionTemplate transaccion = new TransactionTemplate(nodoA.getBean(PlatformTransactionManager.class));
+        CountDownLatch apuntado = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        Thread lento = new Thread(() -> transaccion.executeWithoutResult(estado -> {
+            usuariosA.agregarFavorito("chichi", 20L);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.LOWEST_PRECEDENCE; // después del listener que apunta el cambio
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apuntado.countDown();
+                    try {
+                        confirmar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }));
+        lento.start();
+        try {
+            assertThat(apuntado.await(10, TimeUnit.SECONDS)).isTrue();
+            // ...no hace esperar al de otro usuario
+            CompletableFuture<Void> otro = CompletableFuture.runAsync(() -> usuariosA.agregarFavorito("gohan", 20L));
+            otro.get(5, TimeUnit.SECONDS);
+        } finally {
+            confirmar.countDown();
+            lento.join();
+        }
+        sincronizar(nodoB);
+        assertThat(popularidad(nodoB, 20L)).isEqualTo(2);
+    }
+
+    @Test
+    @Order(3)
+    void unNodoQueArrancaConFavoritosCambiandoNoCuentaNadaDosVeces() throws Exception {
+        JdbcTemplate jdbc = nodoA.getBean(JdbcTemplate.class);
+        UsuarioService usuariosA = nodoA.getBean(UsuarioService.class);
+        for (long id = 10; id < 15; id++) {
+            jdbc.update("insert into personaje (id, name, race) values (?, ?, 'Namekian')", id, "Namek " + id);
+        }
+        for (int i = 0; i < 4; i++) {
+            Usuario fan = new Usuario();
+            fan.setUsername("fan-" + i);
+            fan.setPassword("namek");
+            usuariosA.registrarUsuario(fan);
+        }
+
+        // A cambia favoritos sin parar mientras arranca C
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicInteger cambios = new AtomicInteger();
+        boolean[][] favoritos = new boolean[4][5];
+        Thread hilo = new Thread(() -> {
+            for (int i = 0; !parar.get(); i++) {
+                int fan = i % 4;
+                int personaje = (i / 4) % 5;
+                if (favoritos[fan][personaje]) {
+                    usuariosA.eliminarFavorito("fan-" + fan, 10L + personaje);
+                } else {
+                    usuariosA.agregarFavorito("fan-" + fan, 10L + personaje);
+                }
+                favoritos[fan][personaje] = !favoritos[fan][personaje];
+                cambios.incrementAndGet();
+            }
+        });
+        hilo.start();
+        while (cambios.get() < 20) {
+            Thread.sleep(5);
+        }
+        ConfigurableApplicationContext nodoC = nodo("c");
+        try {
+            int duranteElArranque = cambios.get();
+            parar.set(true);
+            hilo.join();
+            assertThat(duranteElArranque).isGreaterThan(20);
+
+            sincronizar(nodoC);
+
+            Map<Long, Long> enBd = new HashMap<>();
+            jdbc.query("select personaje_id, count(*) from usuario_favoritos group by personaje_id",
+                    rs -> {
+                        enBd.put(rs.getLong(1), rs.getLong(2));
+                    });
+            for (long id = 10; id < 15; id++) {
+                assertThat(popularidad(nodoC, id)).as("favoritos del personaje %d", id)
+                        .isEqualTo(enBd.getOrDefault(id, 0L));
+            }
+            assertThat(nodoC.getBean(SincronizacionNodosService.class).versionLocal())
+                    .isEqualTo(jdbc.queryForObject("select max(version) from catalogo_cambio", Long.class));
+        } finally {
+            parar.set(true);
+            nodoC.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext nodo(String nombre) {
+        // Como argumentos de línea de comandos: tienen prioridad sobre config/application.properties
+        return new SpringApplicationBuilder(DemoApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:nodos;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--spring.jpa.properties.jakarta.persistence.sharedCache.mode=NONE",
+                "--app.snapshot.ruta=" + directorio.resolve(nombre + ".snap"),
+                "--app.calentamiento.enabled=false",
+                "--app.nodos.id=" + nombre,
+                "--app.nodos.intervalo=PT1H",
+                "--app.nodos.asentamiento=" + ASENTAMIENTO);
+    }
+
+    private static void sincronizar(ConfigurableApplicationContext nodo) {
+        nodo.getBean(SincronizacionNodosService.class).sincronizar();
+    }
+
+    private static long busqueda(ConfigurableApplicationContext nodo, String texto) {
+        return nodo.getBean(BusquedaTextoService.class).buscar(texto, 0, 10).total();
+    }
+
+    private static long popularidad(ConfigurableApplicationContext nodo, Long personajeId) {
+        return nodo.getBean(PopularidadService.class).total(personajeId);
+    }
+}
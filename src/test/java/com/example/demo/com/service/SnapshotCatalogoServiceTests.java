@@ -0,0 +1,94 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.repository.PersonajeRepository;
+import com.example.demo.com.util.SnapshotCatalogo;
+
+/**
+ * Validez del snapshot frente a la BD compartida de los tests; cada arranque se simula con
+ * una instancia nueva del servicio sobre un fichero propio.
+ */
+@SpringBootTest(classes = DemoApplication.class)
+class SnapshotCatalogoServiceTests {
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void unaEdicionSinCambiarElNumeroDePersonajesInvalidaElSnapshot() {
+        Long id = personajeRepository.save(new Personaje(null, "Krilin snap", "1.000.000", "1 Billion", "Human",
+                "Male", "Monje de Orin", "krilin.webp", "Z Fighter", null)).getId();
+        Path ruta = directorio.resolve("catalogo.snap");
+        arranque(ruta).escribir();
+
+        assertThat(arranque(ruta).personajes()).isPresent();
+
+        // Edición del contenido: el mismo número de personajes
+        SnapshotCatalogoService servicio = arranque(ruta);
+        servicio.marcarCambio();
+        Personaje krilin = personajeRepository.findById(id).orElseThrow();
+        krilin.setDescription("Maestro de artes marciales");
+        personajeRepository.save(krilin);
+
+        assertThat(arranque(ruta).personajes()).isEmpty();
+
+        // Reescrito desde la BD vuelve a valer, ya con el contenido nuevo
+        servicio.escribir();
+        SnapshotCatalogoService siguiente = arranque(ruta);
+        assertThat(siguiente.personajes()).get()
+                .satisfies(catalogo -> assertThat(catalogo)
+                        .filteredOn(p -> p.getId().equals(id))
+                        .singleElement()
+                        .extracting(Personaje::getDescription)
+                        .isEqualTo("Maestro de artes marciales"));
+    }
+
+    @Test
+    void unSnapshotVacioSeIgnoraHastaLaSiguienteSincronizacion() throws Exception {
+        Path ruta = directorio.resolve("vacio.snap");
+        long marca = jdbcTemplate.queryForObject("select version_catalogo from catalogo_version where id = 1",
+                Long.class);
+        SnapshotCatalogo.escribir(ruta, List.of(), System.currentTimeMillis(), marca);
+
+        SnapshotCatalogoService servicio = arranque(ruta);
+        assertThat(servicio.personajes()).isEmpty();
+        assertThat(servicio.resumenes()).isEmpty();
+        assertThat(servicio.ultimoConocido()).isEmpty();
+
+        // La sincronización con la API guarda personajes y publica CatalogoActualizadoEvent
+        servicio.marcarCambio();
+        Long id = personajeRepository.save(new Personaje(null, "Yamcha snap", "1.980", "4 Million", "Human",
+                "Male", "Bandido del desierto", "yamcha.webp", "Z Fighter", null)).getId();
+        servicio.onCatalogoActualizado();
+
+        assertThat(servicio.personajes()).get()
+                .satisfies(catalogo -> assertThat(catalogo).extracting(Personaje::getId).contains(id));
+        assertThat(arranque(ruta).personajes()).isPresent();
+    }
+
+    private SnapshotCatalogoService arranque(Path ruta) {
+        SnapshotCatalogoService servicio = new SnapshotCatalogoService(personajeRepository, jdbcTemplate, ruta,
+                Duration.ofDays(7), true);
+        servicio.afterSingletonsInstantiated();
+        return servicio;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.com.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.demo.com.DemoApplication;
+import com.example.demo.com.dto.Sugerencia;
+import com.example.demo.com.event.CatalogoActualizadoEvent;
+import com.example.demo.com.model.Personaje;
+import com.example.demo.com.model.Usuario;
+import com.example.demo.com.repository.PersonajeRepository;
+
+/**
+ * El trie se reconstruye fuera del hilo que publica los eventos: con los cambios del catálogo
+ * en cuanto puede y con los de popularidad solo en la reordenación periódica.
+ */
+@SpringBootTest(classes = DemoApplication.class)
+class SugerenciasServiceTests {
+
+    @Autowired
+    private SugerenciasService sugerenciasService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PersonajeRepository personajeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void laPopularidadReordenaElTrieEnLaSiguienteReordenacion() throws Exception {
+        // Prefijo único: la BD se comparte con los demás tests del mismo contexto
+        String prefijo = "sugerido" + System.nanoTime();
+        Long gohan = personajeRepository.save(personaje(prefijo + " Gohan")).getId();
+        Long goten = personajeRepository.save(personaje(prefijo + " Goten")).getId();
+        eventPublisher.publishEvent(new CatalogoActualizadoEvent(List.of(gohan, goten)));
+
+        // A igualdad de favoritos, por orden alfabético
+        assertThat(esperar(() -> ids(prefijo), List.of(gohan, goten))).containsExactly(gohan, goten);
+
+        Usuario fan = new Usuario();
+        fan.setUsername("fan-de-goten");
+        fan.setPassword("secreto");
+        usuarioService.registrarUsuario(fan);
+        usuarioService.agregarFavorito("fan-de-goten", goten);
+
+        // El favorito no reconstruye nada por sí solo...
+        Thread.sleep(200);
+        assertThat(ids(prefijo)).containsExactly(gohan, goten);
+
+        // ...la reordenación periódica sí
+        sugerenciasService.reordenar();
+        assertThat(esperar(() -> ids(prefijo), List.of(goten, gohan))).containsExactly(goten, gohan);
+    }
+
+    private List<Long> ids(String prefijo) {
+        return sugerenciasService.sugerir(prefijo, 10).stream().map(Sugerencia::id).toList();
+    }
+
+    private static <T> T esperar(Supplier<T> valor, T esperado) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        T actual = valor.get();
+        while (!actual.equals(esperado) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            actual = valor.get();
+        }
+        return actual;
+    }
+
+    private static Personaje personaje(String nombre) {
+        return new Personaje(null, nombre, "1.000", "2.000", "Saiyan", "Male", null, null, "Z Fighter", null);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.com.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.session.MapSession;
+
+class OffHeapSessionRepositoryTests {
+
+    private final MutableClock reloj = new MutableClock();
+    private final OffHeapSessionRepository repository = new OffHeapSessionRepository(Duration.ofMinutes(30), reloj);
+
+    @Test
+    void guardaYRecuperaElSecurityContext() {
+        MapSession sesion = repository.createSession();
+        sesion.setAttribute("SPRING_SECURITY_CONTEXT", contexto("goku"));
+        sesion.setAttribute("tema", "oscuro");
+        sesion.setAttribute("visitas", 3);
+        repository.save(sesion);
+
+        MapSession leida = repository.findById(sesion.getId());
+
+        SecurityContext contexto = leida.getAttribute("SPRING_SECURITY_CONTEXT");
+        Authentication auth = contexto.getAuthentication();
+        assertThat(auth.isAuthenticated()).isTrue();
+        assertThat(auth.getName()).isEqualTo("goku");
+        assertThat(AuthorityUtils.authorityListToSet(auth.getAuthorities())).containsExactly("ROLE_USER");
+        assertThat(((WebAuthenticationDetails) auth.getDetails()).getRemoteAddress()).isEqualTo("10.0.0.1");
+        assertThat((String) leida.getAttribute("tema")).isEqualTo("oscuro");
+        assertThat((Integer) leida.getAttribute("visitas")).isEqualTo(3);
+        assertThat(leida.getCreationTime()).isEqualTo(sesion.getCreationTime());
+    }
+
+    @Test
+    void cambioDeIdEliminaLaSesionAnterior() {
+        MapSession sesion = repository.createSession();
+        repository.save(sesion);
+        MapSession leida = repository.findById(sesion.getId());
+        String anterior = leida.getId();
+
+        leida.changeSessionId();
+        repository.save(leida);
+
+        assertThat(repository.findById(anterior)).isNull();
+        assertThat(repository.findById(leida.getId())).isNotNull();
+        assertThat(repository.sesiones()).isEqualTo(1);
+    }
+
+    @Test
+    void caducanPorInactividadYElBarridoLasElimina() {
+        MapSession activa = repository.createSession();
+        MapSession inactiva = repository.createSession();
+        repository.save(activa);
+        repository.save(inactiva);
+
+        reloj.avanzar(Duration.ofMinutes(20));
+        MapSession leida = repository.findById(activa.getId());
+        leida.setLastAccessedTime(reloj.instant());
+        repository.save(leida);
+
+        reloj.avanzar(Duration.ofMinutes(15));
+        assertThat(repository.barrer()).isEqualTo(1);
+        assertThat(repository.findById(inactiva.getId())).isNull();
+        assertThat(repository.findById(activa.getId())).isNotNull();
+
+        reloj.avanzar(Duration.ofMinutes(31));
+        assertThat(repository.findById(activa.getId())).isNull();
+        assertThat(repository.sesiones()).isZero();
+    }
+
+    @Test
+    void unaInactividadNegativaNoCaducaNunca() {
+        MapSession sesion = repository.createSession();
+        sesion.setMaxInactiveInterval(Duration.ofSeconds(-1));
+        repository.save(sesion);
+
+        reloj.avanzar(Duration.ofDays(365));
+
+        assertThat(repository.barrer()).isZero();
+        assertThat(repository.findById(sesion.getId())).isNotNull();
+        assertThat(repository.findById(sesion.getId()).getMaxInactiveInterval()).isNegative();
+    }
+
+    @Test
+    void reutilizaLosHuecosLiberados() {
+        for (int ronda = 0; ronda < 3; ronda++) {
+            List<MapSession> sesiones = IntStream.range(0, 20_000)
+                    .mapToObj(i -> {
+                        MapSession s = repository.createSession();
+                        s.setAttribute("SPRING_SECURITY_CONTEXT", contexto("usuario" + i));
+                        repository.save(s);
+                        return s;
+                    })
+                    .toList();
+            sesiones.forEach(s -> repository.deleteById(s.getId()));
+        }
+        // 20.000 sesiones de <256 B caben en 5 bloques de 1 MB: las rondas no acumulan memoria
+        assertThat(repository.bytesOffHeap()).isLessThanOrEqualTo(5L * ArenaOffHeap.BLOQUE);
+    }
+
+    static SecurityContext contexto(String username) {
+        User user = new User(username, "secreto", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        user.eraseCredentials();
+        UsernamePasswordAuthenticationToken auth =
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        auth.setDetails(new WebAuthenticationDetails("10.0.0.1", "ABCDEF0123456789ABCDEF0123456789"));
+        return new SecurityContextImpl(auth);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
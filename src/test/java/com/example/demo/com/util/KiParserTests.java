@@ -0,0 +1,38 @@
+package com.example.demo.com.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class KiParserTests {
+
+    @Test
+    void separadoresDeMiles() {
+        assertThat(KiParser.parse("60.000.000")).isEqualTo(60_000_000d);
+        assertThat(KiParser.parse("530.000")).isEqualTo(530_000d);
+        assertThat(KiParser.parse("1,500,000")).isEqualTo(1_500_000d);
+        assertThat(KiParser.parse("250")).isEqualTo(250d);
+    }
+
+    @Test
+    void escalasEnIngles() {
+        assertThat(KiParser.parse("90 Septillion")).isEqualTo(90e24);
+        assertThat(KiParser.parse("2.5 Billion")).isEqualTo(2.5e9);
+        assertThat(KiParser.parse("19.84 Septillion")).isEqualTo(19.84e24);
+        assertThat(KiParser.parse("3 billions")).isEqualTo(3e9);
+    }
+
+    @Test
+    void valoresEspeciales() {
+        assertThat(KiParser.parse("969 Googolplex")).isEqualTo(Double.MAX_VALUE);
+        assertThat(KiParser.parse("Unknown")).isNull();
+        assertThat(KiParser.parse("")).isNull();
+        assertThat(KiParser.parse(null)).isNull();
+    }
+
+    @Test
+    void ordenCoherente() {
+        assertThat(KiParser.parse("60.000.000")).isLessThan(KiParser.parse("3 Billion"));
+        assertThat(KiParser.parse("52.71 Trillion")).isLessThan(KiParser.parse("1.9 Septillion"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.com.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.com.model.Personaje;
+
+class SnapshotCatalogoTests {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void escribeYLeeElCatalogo() throws IOException {
+        Path ruta = directorio.resolve("catalogo.snap");
+        Personaje goku = personaje(1L, "Goku", "60.000.000", "Saiyan");
+        Personaje sinDatos = new Personaje(7L, "Misterioso", null, null, null, null, null, null, null, null);
+
+        SnapshotCatalogo.escribir(ruta, List.of(goku, sinDatos), 1234L, 42L);
+        SnapshotCatalogo.Contenido contenido = SnapshotCatalogo.leer(ruta);
+
+        assertThat(contenido.escritoEn()).isEqualTo(1234L);
+        assertThat(contenido.marca()).isEqualTo(42L);
+        assertThat(contenido.personajes()).hasSize(2);
+        Personaje leido = contenido.personajes().get(0);
+        assertThat(leido.getId()).isEqualTo(1L);
+        assertThat(leido.getName()).isEqualTo("Goku");
+        assertThat(leido.getRace()).isEqualTo("Saiyan");
+        assertThat(leido.getDescription()).isEqualTo("El protagonista, ¡Kamehameha!");
+        assertThat(leido.getKiValor()).isEqualTo(60_000_000d);
+        assertThat(contenido.personajes().get(1).getKi()).isNull();
+        assertThat(contenido.personajes().get(1).getKiValor()).isNull();
+    }
+
+    @Test
+    void detectaFicherosCorruptos() throws IOException {
+        Path ruta = directorio.resolve("catalogo.snap");
+        SnapshotCatalogo.escribir(ruta, List.of(personaje(1L, "Goku", "60.000.000", "Saiyan")), 1L, 1L);
+        byte[] bytes = Files.readAllBytes(ruta);
+
+        bytes[bytes.length - 3] ^= 0x20;
+        Files.write(ruta, bytes);
+        assertThatThrownBy(() -> SnapshotCatalogo.leer(ruta)).hasMessageContaining("CRC");
+
+        Files.write(ruta, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThatThrownBy(() -> SnapshotCatalogo.leer(ruta)).hasMessageContaining("truncado");
+
+        Files.writeString(ruta, "esto no es un snapshot, solo texto");
+        assertThatThrownBy(() -> SnapshotCatalogo.leer(ruta)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Personaje personaje(Long id, String nombre, String ki, String raza) {
+        Personaje p = new Personaje(id, nombre, ki, ki, raza, "Male", "El protagonista, ¡Kamehameha!",
+                "https://example.com/" + id + ".webp", "Z Fighter", null);
+        p.setKiValor(KiParser.parse(ki));
+        p.setMaxKiValor(KiParser.parse(ki));
+        return p;
+    }
+}